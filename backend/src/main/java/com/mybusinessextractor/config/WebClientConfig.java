@@ -1,59 +1,190 @@
 package com.mybusinessextractor.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mybusinessextractor.util.ConnectionPoolStats;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Configuration class for WebClient.
+ * Google Places API calls and website crawls use separate clients with their own connection pools,
+ * so slow third-party websites can never hold the connections the API traffic needs.
  */
 @Configuration
 public class WebClientConfig {
 
+    @Value("${places.http.max-connections}")
+    private int placesMaxConnections;
+
+    @Value("${places.http.pending-acquire-max-count}")
+    private int placesPendingAcquireMaxCount;
+
+    @Value("${places.http.pending-acquire-timeout}")
+    private Duration placesPendingAcquireTimeout;
+
+    @Value("${places.http.max-idle-time}")
+    private Duration placesMaxIdleTime;
+
+    @Value("${places.http.connect-timeout}")
+    private Duration placesConnectTimeout;
+
+    @Value("${places.http.response-timeout}")
+    private Duration placesResponseTimeout;
+
+    @Value("${places.http.http2-enabled}")
+    private boolean placesHttp2Enabled;
+
+    @Value("${crawler.http.max-connections-per-host}")
+    private int crawlerMaxConnectionsPerHost;
+
+    @Value("${crawler.http.pending-acquire-max-count}")
+    private int crawlerPendingAcquireMaxCount;
+
+    @Value("${crawler.http.pending-acquire-timeout}")
+    private Duration crawlerPendingAcquireTimeout;
+
+    @Value("${crawler.http.max-idle-time}")
+    private Duration crawlerMaxIdleTime;
+
+    @Value("${crawler.http.connect-timeout}")
+    private Duration crawlerConnectTimeout;
+
+    @Value("${crawler.http.response-timeout}")
+    private Duration crawlerResponseTimeout;
+
+    @Value("${crawler.dns.cache-max-ttl}")
+    private Duration crawlerDnsCacheMaxTtl;
+
+    @Value("${crawler.dns.cache-negative-ttl}")
+    private Duration crawlerDnsCacheNegativeTtl;
+
+    @Value("${crawler.dns.query-timeout}")
+    private Duration crawlerDnsQueryTimeout;
+
+    /**
+     * Creates the connection pool used for Google Places API calls.
+     *
+     * @param connectionPoolStats The registry collecting pool occupancy
+     * @return The connection provider for the Places API
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider placesConnectionProvider(ConnectionPoolStats connectionPoolStats) {
+        return ConnectionProvider.builder("places")
+                .maxConnections(placesMaxConnections)
+                .pendingAcquireMaxCount(placesPendingAcquireMaxCount)
+                .pendingAcquireTimeout(placesPendingAcquireTimeout)
+                .maxIdleTime(placesMaxIdleTime)
+                .evictInBackground(placesMaxIdleTime)
+                .metrics(true, () -> connectionPoolStats)
+                .build();
+    }
+
+    /**
+     * Creates the connection pool used for crawling business websites.
+     * Reactor Netty keeps one pool per remote host, so the connection limit applies per crawled host.
+     *
+     * @param connectionPoolStats The registry collecting pool occupancy
+     * @return The connection provider for website crawls
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider crawlerConnectionProvider(ConnectionPoolStats connectionPoolStats) {
+        return ConnectionProvider.builder("crawler")
+                .maxConnections(crawlerMaxConnectionsPerHost)
+                .pendingAcquireMaxCount(crawlerPendingAcquireMaxCount)
+                .pendingAcquireTimeout(crawlerPendingAcquireTimeout)
+                .maxIdleTime(crawlerMaxIdleTime)
+                .evictInBackground(crawlerMaxIdleTime)
+                .metrics(true, () -> connectionPoolStats)
+                .build();
+    }
+
     /**
-     * Creates a WebClient bean with custom configuration.
+     * Creates the WebClient used for Google Places API calls.
+     * Responses are decoded as a stream, so the default in-memory codec limit is sufficient.
      *
+     * @param connectionProvider The Places API connection pool
      * @return The configured WebClient
      */
     @Bean
-    public WebClient webClient() {
-        // Configure HttpClient with timeout settings
-        HttpClient httpClient = HttpClient.create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000)
-                .responseTimeout(Duration.ofMillis(10000))
-                .doOnConnected(conn -> 
-                        conn.addHandlerLast(new ReadTimeoutHandler(10, TimeUnit.SECONDS))
-                            .addHandlerLast(new WriteTimeoutHandler(10, TimeUnit.SECONDS)));
-
-        // Configure ExchangeStrategies to handle large responses
-        ExchangeStrategies exchangeStrategies = ExchangeStrategies.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
-                .build();
+    public WebClient placesWebClient(@Qualifier("placesConnectionProvider") ConnectionProvider connectionProvider) {
+        HttpClient httpClient = createHttpClient(connectionProvider, placesConnectTimeout, placesResponseTimeout)
+                .keepAlive(true);
+        if (placesHttp2Enabled) {
+            httpClient = httpClient.secure().protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
 
-        // Build and return the WebClient
         return WebClient.builder()
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
-                .exchangeStrategies(exchangeStrategies)
+                .build();
+    }
+
+    /**
+     * Creates the HTTP client shared by all requests to crawled websites.
+     * Name lookups are cached, including failed ones, so expired domains do not cost a DNS query each time.
+     * Redirects are left to the users of the client.
+     *
+     * @param connectionProvider The crawler connection pool
+     * @return The configured HttpClient
+     */
+    @Bean
+    public HttpClient crawlerHttpClient(@Qualifier("crawlerConnectionProvider") ConnectionProvider connectionProvider) {
+        return createHttpClient(connectionProvider, crawlerConnectTimeout, crawlerResponseTimeout)
+                .resolver(spec -> spec
+                        .cacheMaxTimeToLive(crawlerDnsCacheMaxTtl)
+                        .cacheNegativeTimeToLive(crawlerDnsCacheNegativeTtl)
+                        .queryTimeout(crawlerDnsQueryTimeout));
+    }
+
+    /**
+     * Creates the WebClient used for crawling business websites.
+     * Pages are scanned as a stream and never aggregated, so no large in-memory codec limit is needed.
+     *
+     * @param crawlerHttpClient The HTTP client for crawled websites
+     * @return The configured WebClient
+     */
+    @Bean
+    public WebClient crawlerWebClient(@Qualifier("crawlerHttpClient") HttpClient crawlerHttpClient) {
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(crawlerHttpClient.followRedirect(true)))
                 .build();
     }
 
     /**
      * Creates an ObjectMapper bean for JSON processing.
+     * It is also used by Spring MVC, so it registers the Java time module and writes
+     * Instants as ISO-8601 strings.
      *
      * @return The configured ObjectMapper
      */
     @Bean
     public ObjectMapper objectMapper() {
-        return new ObjectMapper();
+        return new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private HttpClient createHttpClient(ConnectionProvider connectionProvider, Duration connectTimeout,
+                                        Duration responseTimeout) {
+        long timeoutMillis = responseTimeout.toMillis();
+        return HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout)
+                .doOnConnected(conn ->
+                        conn.addHandlerLast(new ReadTimeoutHandler(timeoutMillis, TimeUnit.MILLISECONDS))
+                            .addHandlerLast(new WriteTimeoutHandler(timeoutMillis, TimeUnit.MILLISECONDS)));
     }
-} 
\ No newline at end of file
+}
@@ -1,8 +1,12 @@
 package com.mybusinessextractor.controller;
 
 import com.mybusinessextractor.dto.ExportRequest;
+import com.mybusinessextractor.dto.JobEvent;
+import com.mybusinessextractor.dto.JobSummary;
+import com.mybusinessextractor.dto.ResultPage;
 import com.mybusinessextractor.dto.SearchRequest;
 import com.mybusinessextractor.dto.SearchResponse;
+import com.mybusinessextractor.dto.TaskProgressUpdate;
 import com.mybusinessextractor.dto.TaskStatus;
 import com.mybusinessextractor.model.Business;
 import com.mybusinessextractor.service.BusinessExtractorService;
@@ -15,7 +19,9 @@ import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.nio.file.Paths;
 import java.util.List;
@@ -36,19 +42,111 @@ public class BusinessExtractorController {
      * Initiates a search for businesses based on provided categories and locations.
      *
      * @param request The search request containing categories and locations
-     * @return A response with the task ID
+     * @return A response with the job ID
      */
     @PostMapping("/search")
     public ResponseEntity<String> search(@Valid @RequestBody SearchRequest request) {
         log.info("Received search request with {} categories and {} locations", 
                 request.getCategories().size(), request.getLocations().size());
         
-        String taskId = businessExtractorService.initiateSearch(request);
-        return ResponseEntity.ok(taskId);
+        String jobId = businessExtractorService.initiateSearch(request);
+        return ResponseEntity.ok(jobId);
     }
 
     /**
-     * Gets the current status of tasks.
+     * Gets the search jobs that have not been evicted yet.
+     *
+     * @return The job summaries, most recent first
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<List<JobSummary>> getJobs() {
+        return ResponseEntity.ok(businessExtractorService.getJobs());
+    }
+
+    /**
+     * Gets the current status of the tasks of a job.
+     *
+     * @param jobId The job ID
+     * @return A list of task statuses
+     */
+    @GetMapping("/jobs/{jobId}/tasks")
+    public ResponseEntity<List<TaskStatus>> getJobTasks(@PathVariable String jobId) {
+        return ResponseEntity.ok(businessExtractorService.getTaskStatus(jobId));
+    }
+
+    /**
+     * Gets the tasks of a job whose progress changed after a given version.
+     *
+     * @param jobId The job ID
+     * @param since The version returned by the previous call, or 0 for all tasks
+     * @return The changed tasks and the version to pass next time
+     */
+    @GetMapping("/jobs/{jobId}/tasks/updates")
+    public ResponseEntity<TaskProgressUpdate> getJobTaskUpdates(@PathVariable String jobId,
+                                                                @RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(businessExtractorService.getTaskUpdates(jobId, since));
+    }
+
+    /**
+     * Streams the task changes and new results of a job as server-sent events.
+     * A "tasks" event carries the tasks that changed, a "results" event the businesses added or
+     * updated since the previous one, and a "finished" event ends the stream. Idle streams get
+     * heartbeat comments. A reconnecting client continues after the event in Last-Event-ID.
+     *
+     * @param jobId The job ID
+     * @param lastEventId The ID of the last event received before reconnecting
+     * @return The event stream
+     */
+    @GetMapping(path = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamJobEvents(@PathVariable String jobId,
+                                                         @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return businessExtractorService.streamEvents(jobId, lastEventId)
+                .map(event -> JobEvent.HEARTBEAT.equals(event.getType())
+                        ? ServerSentEvent.builder().comment(JobEvent.HEARTBEAT).build()
+                        : ServerSentEvent.builder(event.getData()).id(event.getId()).event(event.getType()).build());
+    }
+
+    /**
+     * Gets the current results of a job.
+     *
+     * @param jobId The job ID
+     * @return The search response containing businesses and status
+     */
+    @GetMapping("/jobs/{jobId}/results")
+    public ResponseEntity<SearchResponse> getJobResults(@PathVariable String jobId) {
+        return ResponseEntity.ok(businessExtractorService.getResults(jobId));
+    }
+
+    /**
+     * Gets the businesses a job added or updated after a cursor.
+     *
+     * @param jobId The job ID
+     * @param after The cursor returned by the previous call, or 0 to start from the beginning
+     * @param limit The maximum number of businesses
+     * @return The businesses and the cursor to pass next time
+     */
+    @GetMapping(path = "/jobs/{jobId}/results", params = "after")
+    public ResponseEntity<ResultPage> getJobResultsAfter(@PathVariable String jobId,
+                                                         @RequestParam long after,
+                                                         @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(businessExtractorService.getResultsAfter(jobId, after, limit));
+    }
+
+    /**
+     * Exports the results of a job to a file.
+     *
+     * @param jobId The job ID
+     * @param request The export request containing the format
+     * @return The exported file as a downloadable resource
+     */
+    @PostMapping("/jobs/{jobId}/export")
+    public ResponseEntity<Resource> exportJobResults(@PathVariable String jobId, @Valid @RequestBody ExportRequest request) {
+        String format = request.getFormat().toLowerCase();
+        return exportResponse(format, businessExtractorService.exportResults(jobId, format));
+    }
+
+    /**
+     * Gets the current status of the tasks of the latest job.
      *
      * @return A list of task statuses
      */
@@ -59,7 +157,7 @@ public class BusinessExtractorController {
     }
 
     /**
-     * Gets the current search results.
+     * Gets the current results of the latest job.
      *
      * @return The search response containing businesses and status
      */
@@ -70,7 +168,20 @@ public class BusinessExtractorController {
     }
 
     /**
-     * Exports the current results to a file.
+     * Gets the businesses the latest job added or updated after a cursor.
+     *
+     * @param after The cursor returned by the previous call, or 0 to start from the beginning
+     * @param limit The maximum number of businesses
+     * @return The businesses and the cursor to pass next time
+     */
+    @GetMapping(path = "/results", params = "after")
+    public ResponseEntity<ResultPage> getResultsAfter(@RequestParam long after,
+                                                      @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(businessExtractorService.getResultsAfter(after, limit));
+    }
+
+    /**
+     * Exports the results of the latest job to a file.
      *
      * @param request The export request containing the format
      * @return The exported file as a downloadable resource
@@ -78,8 +189,10 @@ public class BusinessExtractorController {
     @PostMapping("/export")
     public ResponseEntity<Resource> exportResults(@Valid @RequestBody ExportRequest request) {
         String format = request.getFormat().toLowerCase();
-        String filePath = businessExtractorService.exportResults(format);
-        
+        return exportResponse(format, businessExtractorService.exportResults(format));
+    }
+
+    private ResponseEntity<Resource> exportResponse(String format, String filePath) {
         // Create a Resource from the file path
         Resource resource = new FileSystemResource(filePath);
         
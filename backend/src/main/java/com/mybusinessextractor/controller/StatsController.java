@@ -0,0 +1,35 @@
+package com.mybusinessextractor.controller;
+
+import com.mybusinessextractor.service.StatsProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * REST controller exposing runtime statistics of caches, limiters and queues.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final List<StatsProvider> statsProviders;
+
+    /**
+     * Gets the current statistics of all registered providers.
+     *
+     * @return The statistics grouped by provider name
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Map<String, Object>>> getStats() {
+        Map<String, Map<String, Object>> stats = new TreeMap<>();
+        statsProviders.forEach(provider -> stats.put(provider.getStatsName(), provider.getStats()));
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -0,0 +1,24 @@
+package com.mybusinessextractor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for an event in the live stream of a search job.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobEvent {
+    public static final String TASKS = "tasks";
+    public static final String RESULTS = "results";
+    public static final String FINISHED = "finished";
+    public static final String HEARTBEAT = "heartbeat";
+
+    private String id; // Position in the stream after this event; resume from it with Last-Event-ID
+    private String type; // TASKS, RESULTS, FINISHED or HEARTBEAT
+    private Object data;
+}
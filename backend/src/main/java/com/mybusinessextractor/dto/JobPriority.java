@@ -0,0 +1,32 @@
+package com.mybusinessextractor.dto;
+
+import lombok.Getter;
+import reactor.util.context.ContextView;
+
+/**
+ * Priority of a search job. When jobs compete for task slots, Places API quota or crawl workers,
+ * each gets a share proportional to the weight of its priority.
+ * The priority of the running job is carried in the Reactor context under {@link #CONTEXT_KEY}.
+ */
+@Getter
+public enum JobPriority {
+    INTERACTIVE(16),
+    NORMAL(4),
+    BULK(1);
+
+    public static final String CONTEXT_KEY = JobPriority.class.getName();
+
+    private final int weight;
+
+    JobPriority(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * @param context The Reactor context of the caller
+     * @return The priority of the job the caller works for, NORMAL if unknown
+     */
+    public static JobPriority from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, NORMAL);
+    }
+}
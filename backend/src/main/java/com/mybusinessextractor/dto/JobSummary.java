@@ -0,0 +1,26 @@
+package com.mybusinessextractor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object summarizing a search job.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobSummary {
+    private String id;
+    private String status; // "PROCESSING", "COMPLETED"
+    private JobPriority priority;
+    private Instant createdAt;
+    private Instant finishedAt;
+    private int tasks;
+    private int queuedTasks;
+    private int total;
+}
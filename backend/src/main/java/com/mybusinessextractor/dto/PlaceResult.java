@@ -0,0 +1,74 @@
+package com.mybusinessextractor.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a single place of a Text Search or Place Details response.
+ * Only the fields the extractor uses are bound, everything else is ignored.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PlaceResult {
+
+    @JsonProperty("place_id")
+    private String placeId;
+
+    private String name;
+
+    private String vicinity;
+
+    @JsonProperty("formatted_address")
+    private String formattedAddress;
+
+    @JsonProperty("formatted_phone_number")
+    private String formattedPhoneNumber;
+
+    private String website;
+
+    private String url;
+
+    private Geometry geometry;
+
+    @JsonProperty("address_components")
+    private List<AddressComponent> addressComponents;
+
+    /**
+     * Geometry of a place; only the location is used.
+     */
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Geometry {
+        private Location location;
+    }
+
+    /**
+     * Latitude and longitude of a place.
+     */
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Location {
+        private double lat;
+        private double lng;
+    }
+
+    /**
+     * A component of the structured address of a place.
+     */
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class AddressComponent {
+        @JsonProperty("long_name")
+        private String longName;
+
+        private List<String> types;
+    }
+}
@@ -0,0 +1,25 @@
+package com.mybusinessextractor.dto;
+
+import com.mybusinessextractor.model.Business;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the results of a job added or updated after a cursor.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultPage {
+    private String jobId;
+    private List<Business> businesses; // A business appears again after each update, e.g. a backfilled email
+    private long nextCursor; // Pass as "after" to receive only later entries
+    private boolean hasMore;
+    private int total;
+    private String status;
+}
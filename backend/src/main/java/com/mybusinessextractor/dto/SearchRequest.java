@@ -1,6 +1,7 @@
 package com.mybusinessextractor.dto;
 
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -25,4 +26,17 @@ public class SearchRequest {
      * Defaults to true if not specified.
      */
     private Boolean saveToDatabase = true;
+    
+    /**
+     * Maximum number of category-location tasks of this search that run at the same time.
+     * Defaults to the configured per-job limit if not specified; never exceeds the global limit.
+     */
+    @Positive(message = "maxConcurrentTasks must be positive")
+    private Integer maxConcurrentTasks;
+    
+    /**
+     * Priority of this search when it competes with other searches for capacity.
+     * If not specified, searches with few tasks run as INTERACTIVE and larger ones as BULK.
+     */
+    private JobPriority priority;
 } 
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.mybusinessextractor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object with the tasks of a job that changed since a given progress version.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskProgressUpdate {
+    private String jobId;
+    private long version; // Pass as the next "since" to receive only later changes
+    private boolean finished;
+    private List<TaskStatus> tasks;
+}
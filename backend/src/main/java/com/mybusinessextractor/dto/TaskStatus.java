@@ -1,23 +1,29 @@
 package com.mybusinessextractor.dto;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 /**
  * Data Transfer Object for task status updates during data fetching.
+ * Instances are immutable snapshots of the progress of a task at a given version.
  */
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
 public class TaskStatus {
-    private String id;
-    private String category;
-    private String location;
-    private String status; // "PENDING", "PROCESSING", "COMPLETED", "FAILED"
-    private int processedItems;
-    private int totalItems;
-    private String message;
-} 
\ No newline at end of file
+    String id;
+    String category;
+    String location;
+    String status; // "PENDING", "PROCESSING", "COMPLETED", "FAILED"
+    int processedItems; // detailedItems + failedItems
+    int totalItems; // Places found by the text search
+    int detailedItems;
+    int failedItems;
+    int persistedItems;
+    int crawledItems;
+    int crawlTotalItems;
+    String message;
+    // Progress version of the job at which this snapshot was taken
+    long version;
+}
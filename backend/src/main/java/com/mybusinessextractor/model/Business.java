@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
  * Represents a business entity extracted from Google Places API.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Business {
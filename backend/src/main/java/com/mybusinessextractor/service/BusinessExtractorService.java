@@ -1,7 +1,11 @@
 package com.mybusinessextractor.service;
 
+import com.mybusinessextractor.dto.JobEvent;
+import com.mybusinessextractor.dto.JobSummary;
+import com.mybusinessextractor.dto.ResultPage;
 import com.mybusinessextractor.dto.SearchRequest;
 import com.mybusinessextractor.dto.SearchResponse;
+import com.mybusinessextractor.dto.TaskProgressUpdate;
 import com.mybusinessextractor.dto.TaskStatus;
 import com.mybusinessextractor.model.Business;
 import reactor.core.publisher.Flux;
@@ -10,6 +14,8 @@ import java.util.List;
 
 /**
  * Service interface for business data extraction functionality.
+ * Every search runs as its own job with its own tasks and results; the methods without a job ID
+ * refer to the most recently started job.
  */
 public interface BusinessExtractorService {
     
@@ -17,29 +23,98 @@ public interface BusinessExtractorService {
      * Initiates a search for businesses based on provided categories and locations.
      * 
      * @param request The search request containing categories and locations
-     * @return A unique task ID for tracking
+     * @return The ID of the search job
      */
     String initiateSearch(SearchRequest request);
     
     /**
-     * Gets the current status of tasks.
+     * Gets the search jobs that have not been evicted yet.
+     * 
+     * @return The job summaries, most recent first
+     */
+    List<JobSummary> getJobs();
+    
+    /**
+     * Gets the current status of the tasks of the latest job.
      * 
      * @return A list of task statuses
      */
     List<TaskStatus> getTaskStatus();
     
     /**
-     * Gets the current search results.
+     * Gets the current status of the tasks of a job.
+     * 
+     * @param jobId The job ID
+     * @return A list of task statuses
+     */
+    List<TaskStatus> getTaskStatus(String jobId);
+    
+    /**
+     * Gets the tasks of a job whose progress changed after a given version.
+     * 
+     * @param jobId The job ID
+     * @param sinceVersion The version returned by the previous call, or 0 for all tasks
+     * @return The changed tasks and the version to pass next time
+     */
+    TaskProgressUpdate getTaskUpdates(String jobId, long sinceVersion);
+    
+    /**
+     * Streams the task changes and new results of a job as they happen.
+     * 
+     * @param jobId The job ID
+     * @param lastEventId The ID of the last event received before reconnecting, or null
+     * @return The events, completing once the job has finished
+     */
+    Flux<JobEvent> streamEvents(String jobId, String lastEventId);
+    
+    /**
+     * Gets the current results of the latest job.
      * 
      * @return The search response containing businesses and status
      */
     SearchResponse getResults();
     
     /**
-     * Exports the current results to a file.
+     * Gets the current results of a job.
+     * 
+     * @param jobId The job ID
+     * @return The search response containing businesses and status
+     */
+    SearchResponse getResults(String jobId);
+    
+    /**
+     * Gets the result log entries of the latest job after a cursor.
+     * 
+     * @param after The cursor returned by the previous call, or 0 to start from the beginning
+     * @param limit The maximum number of entries
+     * @return The entries and the cursor to pass next time
+     */
+    ResultPage getResultsAfter(long after, int limit);
+    
+    /**
+     * Gets the result log entries of a job after a cursor.
+     * 
+     * @param jobId The job ID
+     * @param after The cursor returned by the previous call, or 0 to start from the beginning
+     * @param limit The maximum number of entries
+     * @return The entries and the cursor to pass next time
+     */
+    ResultPage getResultsAfter(String jobId, long after, int limit);
+    
+    /**
+     * Exports the results of the latest job to a file.
      * 
      * @param format The export format (csv or excel)
      * @return The path to the exported file
      */
     String exportResults(String format);
+    
+    /**
+     * Exports the results of a job to a file.
+     * 
+     * @param jobId The job ID
+     * @param format The export format (csv or excel)
+     * @return The path to the exported file
+     */
+    String exportResults(String jobId, String format);
 } 
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.mybusinessextractor.service;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Service interface for crawling business websites for email addresses.
+ */
+public interface EmailCrawlerService {
+
+    /**
+     * Queues a crawl of the website for an email address.
+     * Crawls run on a dedicated worker pool, so the caller is never blocked.
+     *
+     * @param website The website URL
+     * @return A Mono emitting the extracted email once the crawl has finished,
+     *         or empty if none was found or the crawl queue is full
+     */
+    Mono<String> crawlEmail(String website);
+}
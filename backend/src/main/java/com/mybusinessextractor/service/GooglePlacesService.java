@@ -2,6 +2,7 @@ package com.mybusinessextractor.service;
 
 import com.mybusinessextractor.model.Business;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -28,10 +29,10 @@ public interface GooglePlacesService {
     Business getBusinessDetails(String placeId);
     
     /**
-     * Extracts email from a website by crawling (if possible).
+     * Fetches detailed information for a specific place without blocking the caller.
      *
-     * @param website The website URL
-     * @return The extracted email or null if not found
+     * @param placeId The Google Place ID
+     * @return A Mono emitting the Business object with detailed information
      */
-    String extractEmail(String website);
-} 
\ No newline at end of file
+    Mono<Business> fetchBusinessDetails(String placeId);
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.mybusinessextractor.service;
+
+import java.util.Map;
+
+/**
+ * Implemented by components that expose runtime counters (cache hits, queue depths, etc.).
+ * All providers are collected and served by the stats endpoint.
+ */
+public interface StatsProvider {
+
+    /**
+     * @return The name the statistics are grouped under
+     */
+    String getStatsName();
+
+    /**
+     * @return A snapshot of the current counters
+     */
+    Map<String, Object> getStats();
+}
@@ -1,30 +1,51 @@
 package com.mybusinessextractor.service.impl;
 
+import com.mybusinessextractor.dto.JobEvent;
+import com.mybusinessextractor.dto.JobPriority;
+import com.mybusinessextractor.dto.JobSummary;
+import com.mybusinessextractor.dto.ResultPage;
 import com.mybusinessextractor.dto.SearchRequest;
 import com.mybusinessextractor.dto.SearchResponse;
+import com.mybusinessextractor.dto.TaskProgressUpdate;
 import com.mybusinessextractor.dto.TaskStatus;
 import com.mybusinessextractor.model.Business;
 import com.mybusinessextractor.service.BusinessExtractorService;
+import com.mybusinessextractor.service.EmailCrawlerService;
 import com.mybusinessextractor.service.GooglePlacesService;
+import com.mybusinessextractor.util.ConcurrencyLimiter;
 import com.mybusinessextractor.util.CountryCitiesUtil;
 import com.mybusinessextractor.util.ExportUtil;
+import com.mybusinessextractor.util.JobJournal;
+import com.mybusinessextractor.util.SearchTaskScheduler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
  * Implementation of the BusinessExtractorService for extracting business data.
+ * Searches run concurrently as independent jobs. Finished jobs are kept for a retention period,
+ * and beyond a maximum number of finished jobs the oldest ones are evicted early.
+ * Every job is journaled while it runs. On shutdown, running tasks are given time to finish, and
+ * on startup interrupted jobs are rebuilt from their journals and resume with the tasks left over.
  */
 @Slf4j
 @Service
@@ -32,57 +53,240 @@ import java.util.stream.Collectors;
 public class BusinessExtractorServiceImpl implements BusinessExtractorService {
 
     private final GooglePlacesService googlePlacesService;
+    private final EmailCrawlerService emailCrawlerService;
     private final ExportUtil exportUtil;
     private final BusinessPersistenceServiceImpl businessPersistenceService;
     private final CountryCitiesUtil countryCitiesUtil;
+    private final SearchTaskScheduler searchTaskScheduler;
+    private final JobJournal jobJournal;
     
-    // In-memory storage for results and tasks
-    private final List<Business> businessResults = new CopyOnWriteArrayList<>();
-    private final Map<String, TaskStatus> taskStatuses = new ConcurrentHashMap<>();
+    // In-memory storage for the results and tasks of each job
+    private final Map<String, SearchJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicReference<SearchJob> latestJob = new AtomicReference<>();
     private final AtomicInteger taskIdCounter = new AtomicInteger(1);
     
+    @Value("${extractor.jobs.retention}")
+    private Duration jobRetention;
+    
+    @Value("${extractor.jobs.max-finished}")
+    private int maxFinishedJobs;
+    
+    @Value("${extractor.jobs.interactive-max-tasks}")
+    private int interactiveMaxTasks;
+    
+    @Value("${extractor.jobs.eviction-interval}")
+    private Duration evictionInterval;
+    
+    @Value("${extractor.stream.interval}")
+    private Duration streamInterval;
+    
+    @Value("${extractor.stream.heartbeat}")
+    private Duration streamHeartbeat;
+    
+    @Value("${extractor.stream.batch-size}")
+    private int streamBatchSize;
+    
+    @Value("${extractor.results.max-page-size}")
+    private int maxResultPageSize;
+    
+    @Value("${extractor.shutdown.drain-timeout}")
+    private Duration drainTimeout;
+    
+    private Disposable evictionTask;
+    private volatile boolean shuttingDown;
+    
+    @Value("${extractor.enrichment.task-concurrency}")
+    private int taskEnrichmentConcurrency;
+    
+    @Value("${extractor.enrichment.global-concurrency}")
+    private int globalEnrichmentConcurrency;
+    
+    // Shared across all tasks so the total number of in-flight detail calls stays bounded
+    private ConcurrencyLimiter enrichmentLimiter;
+    
+    @PostConstruct
+    void initEnrichmentLimiter() {
+        enrichmentLimiter = new ConcurrencyLimiter(globalEnrichmentConcurrency);
+        log.info("Detail enrichment limited to {} per task and {} globally", 
+                taskEnrichmentConcurrency, globalEnrichmentConcurrency);
+    }
+    
+    /**
+     * Starts the periodic eviction of finished jobs; it is stopped on shutdown.
+     */
+    @PostConstruct
+    void initEviction() {
+        evictionTask = Flux.interval(evictionInterval, Schedulers.boundedElastic())
+                .subscribe(tick -> evictFinishedJobs());
+    }
+    
+    /**
+     * Stops accepting searches and waits for the running tasks to finish. Tasks that are still
+     * queued, or do not finish in time, are resumed from the journal on the next start.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        shuttingDown = true;
+        evictionTask.dispose();
+        log.info("Draining search tasks for up to {}", drainTimeout);
+        if (!searchTaskScheduler.shutdown(drainTimeout)) {
+            log.warn("Search tasks still running after {}; they will be resumed on the next start", drainTimeout);
+        }
+    }
+    
+    /**
+     * Resumes the jobs that were interrupted by the last shutdown.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        jobJournal.readUnfinishedJobs().entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().get(0).getTime()))
+                .forEach(entry -> resumeJob(entry.getKey(), entry.getValue()));
+    }
+    
     /**
      * Initiates a search for businesses based on provided categories and locations.
      * If a location is a country, it will be broken down into city-level searches.
+     * The category-location tasks are queued in the search task scheduler rather than started at once.
+     * The priority of the job is carried in the Reactor context of its tasks and email crawls, so the
+     * task scheduler, the Places API rate limiter and the crawl scheduler can share capacity by priority.
      * 
      * @param request The search request containing categories and locations
-     * @return A unique task ID for tracking
+     * @return The ID of the search job
      */
     @Override
     public String initiateSearch(SearchRequest request) {
-        // Clear previous results when starting a new search
-        businessResults.clear();
-        taskStatuses.clear();
+        if (shuttingDown) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is shutting down");
+        }
         
         // Get categories and locations from the request
         List<String> categories = request.getCategories();
         List<String> locations = expandCountryLocations(request.getLocations());
+        JobPriority priority = request.getPriority() != null ? request.getPriority()
+                : categories.size() * locations.size() <= interactiveMaxTasks ? JobPriority.INTERACTIVE : JobPriority.BULK;
+        SearchJob job = new SearchJob(UUID.randomUUID().toString(), priority);
         Boolean saveToDatabase = request.getSaveToDatabase() != null ? request.getSaveToDatabase() : true;
+        int taskConcurrency = request.getMaxConcurrentTasks() != null ? request.getMaxConcurrentTasks() : 0;
+        List<TaskStatus> createdTasks = new ArrayList<>();
         
-        log.info("Starting search with {} categories and {} locations (expanded from {})", 
-                categories.size(), locations.size(), request.getLocations().size());
+        log.info("Starting {} search job {} with {} categories and {} locations (expanded from {})", 
+                priority, job.getId(), categories.size(), locations.size(), request.getLocations().size());
         
         // Create a task for each category-location combination
         categories.forEach(category -> 
             locations.forEach(location -> {
                 String taskId = String.valueOf(taskIdCounter.getAndIncrement());
-                TaskStatus taskStatus = TaskStatus.builder()
-                        .id(taskId)
-                        .category(category)
-                        .location(location)
-                        .status("PENDING")
-                        .processedItems(0)
-                        .totalItems(0)
-                        .build();
-                
-                taskStatuses.put(taskId, taskStatus);
-                
-                // Process the task asynchronously
-                processTask(taskId, category, location, saveToDatabase);
+                TaskProgress task = new TaskProgress(taskId, category, location);
+                job.addTask(task);
+                createdTasks.add(task.snapshot());
             })
         );
+        jobJournal.jobStarted(job.getId(), priority, saveToDatabase, taskConcurrency, createdTasks);
+        jobs.put(job.getId(), job);
+        latestJob.set(job);
         
-        return UUID.randomUUID().toString();
+        scheduleTasks(job, createdTasks, taskConcurrency, saveToDatabase, Map.of());
+        return job.getId();
+    }
+    
+    /**
+     * Queues tasks of a registered job; they stay PENDING until they get a slot.
+     *
+     * @param knownPlaces The places each task found in an earlier run, by task ID
+     */
+    private void scheduleTasks(SearchJob job, List<TaskStatus> tasks, int taskConcurrency, boolean saveToDatabase,
+                               Map<String, Map<String, Boolean>> knownPlaces) {
+        tasks.forEach(task -> 
+            searchTaskScheduler.schedule(job.getId(), taskConcurrency,
+                    processTask(job, task.getId(), task.getCategory(), task.getLocation(), saveToDatabase,
+                            knownPlaces.getOrDefault(task.getId(), Map.of())))
+                .contextWrite(context -> context.put(JobPriority.CONTEXT_KEY, job.getPriority()))
+                .subscribe(unused -> { }, e -> log.warn("Task {} of job {} was not run: {}", 
+                        task.getId(), job.getId(), e.getMessage())));
+    }
+    
+    /**
+     * Rebuilds a job from its journal. Journaled businesses are restored without calling the
+     * Places API again, tasks that had not finished are queued again and skip the businesses
+     * they already produced, and emails still missing are crawled again.
+     *
+     * @param jobId The job ID
+     * @param records The journal records of the job, starting with its start record
+     */
+    private void resumeJob(String jobId, List<JobJournal.Record> records) {
+        JobJournal.Record start = records.get(0);
+        SearchJob job = new SearchJob(jobId, start.getPriority(), Instant.ofEpochMilli(start.getTime()));
+        start.getTasks().forEach(task -> {
+            job.addTask(new TaskProgress(task.getId(), task.getCategory(), task.getLocation()));
+            taskIdCounter.accumulateAndGet(Integer.parseInt(task.getId()) + 1, Math::max);
+        });
+        
+        // Businesses by task ID and place ID; like in a normal run, a place found by several tasks
+        // is one result per task
+        Map<String, Map<String, Business>> businesses = new LinkedHashMap<>();
+        List<Business> restored = new ArrayList<>();
+        // Places found by each task, with whether they were saved to the database
+        Map<String, Map<String, Boolean>> knownPlaces = new HashMap<>();
+        Map<String, JobJournal.Record> finishedTasks = new HashMap<>();
+        for (JobJournal.Record record : records) {
+            switch (record.getType()) {
+                case BUSINESS -> {
+                    Business business = record.getBusiness();
+                    if (businesses.computeIfAbsent(record.getTaskId(), taskId -> new LinkedHashMap<>())
+                            .putIfAbsent(business.getId(), business) == null) {
+                        restored.add(business);
+                    }
+                    knownPlaces.computeIfAbsent(record.getTaskId(), taskId -> new HashMap<>())
+                            .put(business.getId(), Boolean.TRUE.equals(record.getPersisted()));
+                }
+                case EMAIL -> {
+                    Business business = businesses.getOrDefault(record.getTaskId(), Map.of())
+                            .get(record.getBusinessId());
+                    if (business != null) {
+                        business.setEmail(record.getEmail());
+                    }
+                }
+                case TASK_FINISHED -> finishedTasks.put(record.getTaskId(), record);
+                default -> { }
+            }
+        }
+        restored.forEach(job::addResult);
+        
+        boolean saveToDatabase = Boolean.TRUE.equals(start.getSaveToDatabase());
+        int taskConcurrency = start.getMaxConcurrentTasks() != null ? start.getMaxConcurrentTasks() : 0;
+        // Unfinished tasks count their restored businesses again when the search is replayed
+        knownPlaces.forEach((taskId, places) -> {
+            if (finishedTasks.containsKey(taskId)) {
+                places.values().forEach(persisted -> restoreCounts(job, taskId, persisted));
+            }
+        });
+        finishedTasks.values().forEach(record -> 
+            job.setTaskState(record.getTaskId(), record.getStatus(), record.getMessage()));
+        List<TaskStatus> unfinished = job.getTaskList().stream()
+                .filter(task -> "PENDING".equals(task.getStatus()))
+                .collect(Collectors.toList());
+        jobs.put(jobId, job);
+        latestJob.set(job);
+        log.info("Resuming search job {} with {} of {} tasks left and {} restored results", 
+                jobId, unfinished.size(), job.getTasks().size(), restored.size());
+        
+        scheduleTasks(job, unfinished, taskConcurrency, saveToDatabase, knownPlaces);
+        businesses.forEach((taskId, places) -> places.values().forEach(business -> 
+            scheduleEmailCrawl(job, taskId, business, saveToDatabase)));
+    }
+    
+    /**
+     * Counts a business that a task produced before it was restored, or that a resumed task skips.
+     *
+     * @param persisted Whether the journal shows the business was saved to the database
+     */
+    private void restoreCounts(SearchJob job, String taskId, boolean persisted) {
+        job.increment(taskId, TaskProgress.Stage.FOUND);
+        job.increment(taskId, TaskProgress.Stage.DETAILED);
+        if (persisted) {
+            job.increment(taskId, TaskProgress.Stage.PERSISTED);
+        }
     }
     
     /**
@@ -110,48 +314,212 @@ public class BusinessExtractorServiceImpl implements BusinessExtractorService {
     }
     
     /**
-     * Gets the current status of tasks.
+     * Gets the search jobs that have not been evicted yet.
      * 
-     * @return A list of task statuses
+     * @return The job summaries, most recent first
+     */
+    @Override
+    public List<JobSummary> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(SearchJob::getCreatedAt).reversed())
+                .map(job -> JobSummary.builder()
+                        .id(job.getId())
+                        .status(job.isFinished() ? "COMPLETED" : "PROCESSING")
+                        .priority(job.getPriority())
+                        .createdAt(job.getCreatedAt())
+                        .finishedAt(job.getFinishedAt())
+                        .tasks(job.getTasks().size())
+                        .queuedTasks(searchTaskScheduler.getQueued(job.getId()))
+                        .total(job.getResults().size())
+                        .build())
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Gets the current status of the tasks of the latest job.
+     * 
+     * @return A list of task statuses, empty if no job has been started
      */
     @Override
     public List<TaskStatus> getTaskStatus() {
-        return new ArrayList<>(taskStatuses.values());
+        SearchJob job = latestJob.get();
+        return job != null ? job.getTaskList() : new ArrayList<>();
     }
     
     /**
-     * Gets the current search results.
+     * Gets the current status of the tasks of a job.
+     * 
+     * @param jobId The job ID
+     * @return A list of task statuses
+     */
+    @Override
+    public List<TaskStatus> getTaskStatus(String jobId) {
+        return getJob(jobId).getTaskList();
+    }
+    
+    /**
+     * Gets the tasks of a job whose progress changed after a given version.
+     * Once the job has finished, all tasks are returned, so the last update a poller receives
+     * always holds the final state of every task.
+     * 
+     * @param jobId The job ID
+     * @param sinceVersion The version returned by the previous call, or 0 for all tasks
+     * @return The changed tasks and the version to pass next time
+     */
+    @Override
+    public TaskProgressUpdate getTaskUpdates(String jobId, long sinceVersion) {
+        SearchJob job = getJob(jobId);
+        boolean finished = job.isFinished();
+        long version = job.getVersion();
+        return TaskProgressUpdate.builder()
+                .jobId(jobId)
+                .version(version)
+                .finished(finished)
+                .tasks(job.getChangesSince(finished ? 0 : sinceVersion))
+                .build();
+    }
+    
+    /**
+     * Streams the task changes and new results of a job as they happen.
+     * 
+     * @param jobId The job ID
+     * @param lastEventId The ID of the last event received before reconnecting, or null
+     * @return The events, completing once the job has finished
+     */
+    @Override
+    public Flux<JobEvent> streamEvents(String jobId, String lastEventId) {
+        SearchJob job = getJob(jobId);
+        return Flux.defer(() -> new JobEventStream(job, lastEventId, streamBatchSize, streamHeartbeat).events(streamInterval));
+    }
+    
+    /**
+     * Gets the current results of the latest job.
      * 
      * @return The search response containing businesses and status
      */
     @Override
     public SearchResponse getResults() {
-        // Calculate status based on task statuses
-        boolean allCompleted = taskStatuses.values().stream()
-                .allMatch(task -> "COMPLETED".equals(task.getStatus()) || "FAILED".equals(task.getStatus()));
-        
-        String status = allCompleted ? "COMPLETED" : "PROCESSING";
+        SearchJob job = latestJob.get();
+        if (job == null) {
+            return SearchResponse.builder()
+                    .businesses(new ArrayList<>())
+                    .total(0)
+                    .status("COMPLETED")
+                    .build();
+        }
+        return getResults(job);
+    }
+    
+    /**
+     * Gets the current results of a job.
+     * 
+     * @param jobId The job ID
+     * @return The search response containing businesses and status
+     */
+    @Override
+    public SearchResponse getResults(String jobId) {
+        return getResults(getJob(jobId));
+    }
+    
+    private SearchResponse getResults(SearchJob job) {
+        // Emails may still be backfilled after a task completed
+        String status = job.isFinished() ? "COMPLETED" : "PROCESSING";
+        List<Business> businesses = job.getResults().snapshot();
         
         return SearchResponse.builder()
-                .businesses(new ArrayList<>(businessResults))
-                .total(businessResults.size())
+                .businesses(businesses)
+                .total(businesses.size())
+                .status(status)
+                .build();
+    }
+    
+    /**
+     * Gets the result log entries of the latest job after a cursor.
+     * 
+     * @param after The cursor returned by the previous call, or 0 to start from the beginning
+     * @param limit The maximum number of entries, capped to the configured page size
+     * @return The entries and the cursor to pass next time, empty if no job has been started
+     */
+    @Override
+    public ResultPage getResultsAfter(long after, int limit) {
+        SearchJob job = latestJob.get();
+        if (job == null) {
+            return ResultPage.builder()
+                    .businesses(new ArrayList<>())
+                    .nextCursor(after)
+                    .status("COMPLETED")
+                    .build();
+        }
+        return getResultsAfter(job, after, limit);
+    }
+    
+    /**
+     * Gets the result log entries of a job after a cursor.
+     * 
+     * @param jobId The job ID
+     * @param after The cursor returned by the previous call, or 0 to start from the beginning
+     * @param limit The maximum number of entries, capped to the configured page size
+     * @return The entries and the cursor to pass next time
+     */
+    @Override
+    public ResultPage getResultsAfter(String jobId, long after, int limit) {
+        return getResultsAfter(getJob(jobId), after, limit);
+    }
+    
+    private ResultPage getResultsAfter(SearchJob job, long after, int limit) {
+        if (after < 0 || limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The cursor must not be negative and the limit must be positive");
+        }
+        // Read before the entries, so a job reported finished has no entries beyond this page
+        String status = job.isFinished() ? "COMPLETED" : "PROCESSING";
+        // A cursor beyond the log is from before a restart, when the job was rebuilt from its journal
+        long from = after <= job.getResultSequence() ? after : 0;
+        List<Business> businesses = job.getResultsAfter(from, Math.min(limit, maxResultPageSize));
+        long nextCursor = from + businesses.size();
+        
+        return ResultPage.builder()
+                .jobId(job.getId())
+                .businesses(businesses)
+                .nextCursor(nextCursor)
+                .hasMore(nextCursor < job.getResultSequence())
+                .total(job.getResults().size())
                 .status(status)
                 .build();
     }
     
     /**
-     * Exports the current results to a file.
+     * Exports the results of the latest job to a file.
      * 
      * @param format The export format (csv or xlsx)
      * @return The path to the exported file
      */
     @Override
     public String exportResults(String format) {
-        if (businessResults.isEmpty()) {
+        SearchJob job = latestJob.get();
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No results to export");
+        }
+        return exportResults(job, format);
+    }
+    
+    /**
+     * Exports the results of a job to a file.
+     * 
+     * @param jobId The job ID
+     * @param format The export format (csv or xlsx)
+     * @return The path to the exported file
+     */
+    @Override
+    public String exportResults(String jobId, String format) {
+        return exportResults(getJob(jobId), format);
+    }
+    
+    private String exportResults(SearchJob job, String format) {
+        if (job.getResults().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No results to export");
         }
         
-        List<Business> results = new ArrayList<>(businessResults);
+        List<Business> results = job.getResults().snapshot();
         
         if ("csv".equalsIgnoreCase(format)) {
             return exportUtil.exportToCsv(results);
@@ -163,96 +531,183 @@ public class BusinessExtractorServiceImpl implements BusinessExtractorService {
         }
     }
     
+    private SearchJob getJob(String jobId) {
+        SearchJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Search job not found: " + jobId);
+        }
+        return job;
+    }
+    
     /**
-     * Processes a task asynchronously.
+     * Evicts finished jobs whose retention period has passed, and the oldest finished jobs
+     * beyond the maximum number kept. Running jobs are never evicted.
+     */
+    private void evictFinishedJobs() {
+        Instant expiry = Instant.now().minus(jobRetention);
+        List<SearchJob> finished = new ArrayList<>();
+        jobs.values().forEach(job -> {
+            if (job.markIfFinished()) {
+                // Nothing is left to resume
+                jobJournal.jobFinished(job.getId());
+            }
+            if (job.getFinishedAt() != null) {
+                finished.add(job);
+            }
+        });
+        finished.sort(Comparator.comparing(SearchJob::getFinishedAt).reversed());
+        for (int i = 0; i < finished.size(); i++) {
+            SearchJob job = finished.get(i);
+            if (i >= maxFinishedJobs || job.getFinishedAt().isBefore(expiry)) {
+                jobs.remove(job.getId());
+                latestJob.compareAndSet(job, null);
+                log.info("Evicted finished search job {} with {} results", job.getId(), job.getResults().size());
+            }
+        }
+    }
+    
+    /**
+     * Builds the processing of a task; nothing runs until the returned Mono is subscribed to.
+     * Businesses found by the text search are enriched concurrently, bounded by the
+     * per-task and global enrichment limits. Each business is published as soon as its
+     * details arrive; a missing email is crawled by the email crawler and backfilled later.
      * 
+     * @param job The job the task belongs to
      * @param taskId The task ID
      * @param category The business category
      * @param location The location to search
      * @param saveToDatabase Whether to save results to database
+     * @param knownPlaces Places already found by an earlier run of the task, which are not enriched again,
+     *                    with whether they were saved to the database
+     * @return A Mono completing when the task has completed or failed
      */
-    private void processTask(String taskId, String category, String location, boolean saveToDatabase) {
-        // Update task status to PROCESSING
-        TaskStatus taskStatus = taskStatuses.get(taskId);
-        taskStatus.setStatus("PROCESSING");
-        taskStatuses.put(taskId, taskStatus);
-        
-        Flux.fromIterable(Collections.singletonList(Mono.just(taskId)))
-            .flatMap(m -> googlePlacesService.searchBusinesses(category, location))
-            .publishOn(Schedulers.boundedElastic())
+    private Mono<Void> processTask(SearchJob job, String taskId, String category, String location, boolean saveToDatabase,
+                                   Map<String, Boolean> knownPlaces) {
+        return Flux.defer(() -> {
+            // Update task status to PROCESSING
+            job.setTaskState(taskId, "PROCESSING", null);
+            return googlePlacesService.searchBusinesses(category, location);
+        })
             .doOnNext(business -> {
                 // Set category for the business
                 business.setCategory(category);
                 business.setRealCategory(category);
-                
-                // Fetch additional details
-                try {
-                    Business detailedBusiness = googlePlacesService.getBusinessDetails(business.getId());
-                    
-                    // Merge the detailed business data with the basic business data
-                    business.setBusinessName(detailedBusiness.getBusinessName());
-                    business.setAddress(detailedBusiness.getAddress());
-                    business.setCity(detailedBusiness.getCity());
-                    business.setState(detailedBusiness.getState());
-                    business.setPostalCode(detailedBusiness.getPostalCode());
-                    business.setCountry(detailedBusiness.getCountry());
-                    business.setPhone(detailedBusiness.getPhone());
-                    business.setEmail(detailedBusiness.getEmail());
-                    business.setWebsite(detailedBusiness.getWebsite());
-                    
-                    // Try to extract email from website if email is not available and website is provided
-                    if ((business.getEmail() == null || business.getEmail().isEmpty()) && 
-                        business.getWebsite() != null && !business.getWebsite().isEmpty()) {
-                        try {
-                            log.info("Attempting to extract email from website: {}", business.getWebsite());
-                            String email = googlePlacesService.extractEmail(business.getWebsite());
-                            if (email != null && !email.isEmpty()) {
-                                log.info("Successfully extracted email {} from website {} for business {}", 
-                                        email, business.getWebsite(), business.getBusinessName());
-                                business.setEmail(email);
-                            }
-                        } catch (Exception e) {
-                            log.warn("Failed to extract email from website: {}", business.getWebsite(), e);
-                        }
-                    }
-                    
-                    // Update the processed items count
-                    TaskStatus currentStatus = taskStatuses.get(taskId);
-                    currentStatus.setProcessedItems(currentStatus.getProcessedItems() + 1);
-                    taskStatuses.put(taskId, currentStatus);
-                    
-                } catch (Exception e) {
-                    log.error("Error fetching details for business: {}", business.getId(), e);
-                }
-                
-                // Add to results
-                businessResults.add(business);
-                
-                // Save to database only if saveToDatabase flag is true
-                if (saveToDatabase) {
-                    try {
-                        businessPersistenceService.saveBusiness(business);
-                    } catch (Exception e) {
-                        log.error("Error saving business to database: {}", business.getId(), e);
-                    }
+            })
+            .filter(business -> {
+                Boolean persisted = knownPlaces.get(business.getId());
+                if (persisted == null) {
+                    job.increment(taskId, TaskProgress.Stage.FOUND);
+                    return true;
                 }
+                restoreCounts(job, taskId, persisted);
+                return false;
             })
+            .flatMap(business -> enrichmentLimiter.limit(enrichBusiness(job, taskId, business)), taskEnrichmentConcurrency)
+            // Add to results
+            .doOnNext(job::addResult)
+            // Save to database only if saveToDatabase flag is true
+            .flatMap(business -> (saveToDatabase ? persist(business) : Mono.just(false))
+                .doOnNext(persisted -> {
+                    if (persisted) {
+                        job.increment(taskId, TaskProgress.Stage.PERSISTED);
+                    }
+                    jobJournal.businessFound(job.getId(), taskId, business, persisted);
+                    scheduleEmailCrawl(job, taskId, business, saveToDatabase);
+                }), taskEnrichmentConcurrency)
             .doOnComplete(() -> {
                 // Update task status to COMPLETED
-                TaskStatus currentStatus = taskStatuses.get(taskId);
-                currentStatus.setStatus("COMPLETED");
-                currentStatus.setTotalItems(currentStatus.getProcessedItems());
-                taskStatuses.put(taskId, currentStatus);
+                job.setTaskState(taskId, "COMPLETED", null);
+                jobJournal.taskFinished(job.getId(), taskId, "COMPLETED", null);
                 log.info("Task completed: {}", taskId);
             })
             .doOnError(e -> {
                 // Update task status to FAILED
-                TaskStatus currentStatus = taskStatuses.get(taskId);
-                currentStatus.setStatus("FAILED");
-                currentStatus.setMessage(e.getMessage());
-                taskStatuses.put(taskId, currentStatus);
+                job.setTaskState(taskId, "FAILED", e.getMessage());
+                jobJournal.taskFinished(job.getId(), taskId, "FAILED", e.getMessage());
                 log.error("Task failed: {}", taskId, e);
             })
-            .subscribe();
+            .onErrorResume(e -> Mono.empty())
+            .then();
+    }
+    
+    /**
+     * Fetches the details of a business and merges them into the basic search result.
+     * Failures are logged and the basic business is emitted unchanged.
+     *
+     * @param job The job the task belongs to
+     * @param taskId The task ID used for progress accounting
+     * @param business The business found by the text search
+     * @return A Mono emitting the enriched business
+     */
+    private Mono<Business> enrichBusiness(SearchJob job, String taskId, Business business) {
+        return googlePlacesService.fetchBusinessDetails(business.getId())
+            .doOnNext(detailedBusiness -> mergeDetails(business, detailedBusiness))
+            .doOnSuccess(ignored -> job.increment(taskId, TaskProgress.Stage.DETAILED))
+            .thenReturn(business)
+            .onErrorResume(e -> {
+                job.increment(taskId, TaskProgress.Stage.FAILED);
+                log.error("Error fetching details for business: {}", business.getId(), e);
+                return Mono.just(business);
+            });
+    }
+    
+    /**
+     * Saves a business on a worker thread, since the persistence service blocks.
+     * Failures are logged.
+     *
+     * @param business The business to save
+     * @return A Mono emitting whether the business was saved
+     */
+    private Mono<Boolean> persist(Business business) {
+        return Mono.fromCallable(() -> {
+            try {
+                businessPersistenceService.saveBusiness(business);
+                return true;
+            } catch (Exception e) {
+                log.error("Error saving business to database: {}", business.getId(), e);
+                return false;
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+    
+    /**
+     * Copies the detailed business data onto the basic business data.
+     */
+    private void mergeDetails(Business business, Business detailedBusiness) {
+        business.setBusinessName(detailedBusiness.getBusinessName());
+        business.setAddress(detailedBusiness.getAddress());
+        business.setCity(detailedBusiness.getCity());
+        business.setState(detailedBusiness.getState());
+        business.setPostalCode(detailedBusiness.getPostalCode());
+        business.setCountry(detailedBusiness.getCountry());
+        business.setPhone(detailedBusiness.getPhone());
+        business.setEmail(detailedBusiness.getEmail());
+        business.setWebsite(detailedBusiness.getWebsite());
+    }
+    
+    /**
+     * Queues a website crawl if the details did not provide an email and backfills the email
+     * into the results and the persistence store once the crawl has finished.
+     */
+    private void scheduleEmailCrawl(SearchJob job, String taskId, Business business, boolean saveToDatabase) {
+        if ((business.getEmail() != null && !business.getEmail().isEmpty()) ||
+            business.getWebsite() == null || business.getWebsite().isEmpty()) {
+            return;
+        }
+        
+        job.increment(taskId, TaskProgress.Stage.CRAWL_QUEUED);
+        emailCrawlerService.crawlEmail(business.getWebsite())
+            .flatMap(email -> {
+                log.info("Successfully extracted email {} from website {} for business {}", 
+                        email, business.getWebsite(), business.getBusinessName());
+                business.setEmail(email);
+                job.resultUpdated(business);
+                jobJournal.emailFound(job.getId(), taskId, business.getId(), email);
+                
+                return saveToDatabase ? persist(business).thenReturn(email) : Mono.just(email);
+            })
+            .doFinally(signal -> job.increment(taskId, TaskProgress.Stage.CRAWLED))
+            .contextWrite(context -> context.put(JobPriority.CONTEXT_KEY, job.getPriority()))
+            .subscribe(email -> { }, e -> log.warn("Failed to extract email from website: {}", business.getWebsite(), e));
     }
-} 
\ No newline at end of file
+}
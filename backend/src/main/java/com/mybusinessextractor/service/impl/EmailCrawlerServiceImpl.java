@@ -0,0 +1,401 @@
+package com.mybusinessextractor.service.impl;
+
+import com.mybusinessextractor.service.EmailCrawlerService;
+import com.mybusinessextractor.service.StatsProvider;
+import com.mybusinessextractor.util.CrawlDecision;
+import com.mybusinessextractor.util.CrawlEligibilityClassifier;
+import com.mybusinessextractor.util.CrawlResultCache;
+import com.mybusinessextractor.util.DomainNames;
+import com.mybusinessextractor.util.EmailScanner;
+import com.mybusinessextractor.util.HostCircuitBreaker;
+import com.mybusinessextractor.util.HostCrawlScheduler;
+import com.mybusinessextractor.util.SingleFlight;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of the website email crawler.
+ * Crawls run independently of the Places API stages. Every page fetch goes through the
+ * {@link HostCrawlScheduler}, which limits concurrency per host and in total, and pages are
+ * streamed through the {@link EmailScanner} on the crawler's own scheduler.
+ * The number of pending crawls is bounded; beyond it new crawls are rejected instead of piling up.
+ * Expired outcomes are refreshed with a conditional request for the home page, and an unmodified
+ * or unchanged home page reuses the previous outcome without crawling the contact pages again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailCrawlerServiceImpl implements EmailCrawlerService, StatsProvider {
+
+    @Qualifier("crawlerWebClient")
+    private final WebClient crawlerWebClient;
+    private final EmailScanner emailScanner;
+    private final CrawlResultCache crawlResultCache;
+    private final HostCrawlScheduler hostCrawlScheduler;
+    private final HostCircuitBreaker hostCircuitBreaker;
+    private final CrawlEligibilityClassifier crawlEligibilityClassifier;
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36";
+    private static final Duration PAGE_TIMEOUT = Duration.ofSeconds(15);
+    private static final Duration CONTACT_PAGE_TIMEOUT = Duration.ofSeconds(10);
+    // Tried after the contact links found on the home page
+    private static final List<String> WELL_KNOWN_CONTACT_PATHS = List.of(
+            "/iletisim", "/contact", "/contact-us", "/kontakt", "/impressum", "/bize-ulasin", "/hakkimizda", "/about");
+
+    // Concurrent callers for the same domain share one crawl
+    private final SingleFlight<String> crawlInFlight = new SingleFlight<>();
+
+    @Value("${crawler.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${crawler.workers}")
+    private int workers;
+
+    @Value("${crawler.contact-pages.max-candidates}")
+    private int maxContactPages;
+
+    @Value("${crawler.contact-pages.fan-out}")
+    private int contactPageFanOut;
+
+    private Scheduler crawlScheduler;
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong found = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong changed = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        crawlScheduler = Schedulers.newBoundedElastic(workers, Integer.MAX_VALUE, "email-crawler");
+        log.info("Email crawler started with {} workers and up to {} pending crawls", workers, queueCapacity);
+    }
+
+    @PreDestroy
+    void stop() {
+        crawlScheduler.dispose();
+    }
+
+    /**
+     * Queues a crawl of the website for an email address.
+     * URLs that cannot be crawled are skipped, websites whose domain has a cached outcome
+     * are answered without a crawl, and concurrent calls for the same domain share one crawl.
+     *
+     * @param website The website URL
+     * @return A Mono emitting the extracted email, or empty if not found or the queue is full
+     */
+    @Override
+    public Mono<String> crawlEmail(String website) {
+        return crawlTarget(website).flatMap(this::queueCrawl);
+    }
+
+    private Mono<String> queueCrawl(String website) {
+        String domain = DomainNames.registrableDomain(website);
+        CrawlResultCache.Outcome cached = crawlResultCache.get(domain);
+        if (cached != null) {
+            log.debug("Using cached crawl outcome {} for domain: {}", cached.getStatus(), domain);
+            return Mono.justOrEmpty(cached.getEmail());
+        }
+
+        return crawlInFlight.execute(domain, () -> Mono.defer(() -> {
+            if (pending.incrementAndGet() > queueCapacity) {
+                pending.decrementAndGet();
+                rejected.incrementAndGet();
+                log.warn("Crawl queue is full, skipping email extraction for website: {}", website);
+                return Mono.empty();
+            }
+            submitted.incrementAndGet();
+            return crawl(website, domain, crawlResultCache.getStale(domain))
+                    .mapNotNull(CrawlResultCache.Outcome::getEmail)
+                    .doOnNext(email -> found.incrementAndGet())
+                    .doFinally(signal -> {
+                        pending.decrementAndGet();
+                        completed.incrementAndGet();
+                    });
+        }));
+    }
+
+    @Override
+    public String getStatsName() {
+        return "emailCrawler";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", workers);
+        stats.put("pending", pending.get());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("submitted", submitted.get());
+        stats.put("rejected", rejected.get());
+        stats.put("completed", completed.get());
+        stats.put("found", found.get());
+        Map<String, Object> revalidation = new LinkedHashMap<>();
+        revalidation.put("notModified", notModified.get());
+        revalidation.put("unchanged", unchanged.get());
+        revalidation.put("changed", changed.get());
+        stats.put("revalidation", revalidation);
+        stats.put("coalescing", crawlInFlight.getStats());
+        return stats;
+    }
+
+    /**
+     * Finds the URL to crawl for a website according to the crawl eligibility classifier.
+     * Targets found by a special-case handler are classified once more and only crawled if plainly crawlable.
+     *
+     * @param website The website URL
+     * @return A Mono emitting the URL to crawl, or empty if the website is not worth crawling
+     */
+    private Mono<String> crawlTarget(String website) {
+        if (website == null || website.isEmpty()) {
+            return Mono.empty();
+        }
+        CrawlDecision decision = crawlEligibilityClassifier.classify(website);
+        return switch (decision.getAction()) {
+            case CRAWL -> Mono.just(website);
+            case SKIP -> {
+                log.debug("Skipping website ({}): {}", decision.getReason(), website);
+                yield Mono.empty();
+            }
+            case SPECIAL -> decision.getHandler().apply(website)
+                    .filter(target -> crawlEligibilityClassifier.classify(target).getAction() == CrawlDecision.Action.CRAWL);
+        };
+    }
+
+    /**
+     * Crawls the website and caches the outcome for its domain.
+     */
+    private Mono<CrawlResultCache.Outcome> crawl(String website, String domain, CrawlResultCache.Outcome previous) {
+        return fetchOutcome(website, previous)
+                .doOnNext(outcome -> crawlResultCache.put(domain, outcome));
+    }
+
+    /**
+     * Scans the website for an email address and, if the page has none, its likely contact pages.
+     * A website whose home page cannot be loaded at all is reported as unreachable.
+     * If a previous outcome is given, the home page is requested conditionally and the previous
+     * outcome is kept if the page is not modified or its content is unchanged.
+     *
+     * @param website The website URL
+     * @param previous The expired outcome to revalidate, or null
+     * @return A Mono emitting the crawl outcome
+     */
+    private Mono<CrawlResultCache.Outcome> fetchOutcome(String website, CrawlResultCache.Outcome previous) {
+        // Ensure website has proper protocol
+        String sanitizedWebsite = website.startsWith("http://") || website.startsWith("https://")
+                ? website
+                : "https://" + website;
+
+        log.info("Attempting to extract email from website: {}", sanitizedWebsite);
+        return scanPage(sanitizedWebsite, PAGE_TIMEOUT, previous)
+                .flatMap(page -> {
+                    if (page.isNotModified()) {
+                        if (previous == null) {
+                            return Mono.empty();
+                        }
+                        notModified.incrementAndGet();
+                        log.info("Home page not modified, keeping previous crawl outcome of {}", sanitizedWebsite);
+                        return Mono.just(previous);
+                    }
+
+                    EmailScanner.Result result = page.getScan();
+                    if (previous != null) {
+                        if (result.getContentHash().equals(previous.getContentHash())) {
+                            unchanged.incrementAndGet();
+                            log.info("Home page unchanged, keeping previous crawl outcome of {}", sanitizedWebsite);
+                            return Mono.just(previous.withValidators(page.getEtag(), page.getLastModified(), result.getContentHash()));
+                        }
+                        changed.incrementAndGet();
+                    }
+
+                    Mono<CrawlResultCache.Outcome> outcome;
+                    if (result.getEmail() != null) {
+                        log.info("Successfully extracted email: {} from {}", result.getEmail(), sanitizedWebsite);
+                        outcome = Mono.just(CrawlResultCache.Outcome.found(result.getEmail()));
+                    } else {
+                        outcome = raceContactPages(contactPageCandidates(sanitizedWebsite, result.getContactLinks()))
+                                .map(CrawlResultCache.Outcome::found)
+                                .defaultIfEmpty(CrawlResultCache.Outcome.notFound());
+                    }
+                    return outcome.map(found -> found.withValidators(page.getEtag(), page.getLastModified(), result.getContentHash()));
+                })
+                .defaultIfEmpty(CrawlResultCache.Outcome.notFound())
+                .onErrorResume(e -> {
+                    if (e instanceof HostCircuitBreaker.OpenCircuitException) {
+                        log.debug("Skipping unreachable website: {}", sanitizedWebsite);
+                    } else {
+                        log.warn("Failed to extract email from website: {}", sanitizedWebsite, e);
+                    }
+                    return Mono.just(CrawlResultCache.Outcome.unreachable());
+                });
+    }
+
+    /**
+     * Streams a page through the email scanner. The connection is released as soon as the
+     * scanner is done, and pages that cannot contain text are not read at all.
+     * The fetch waits for its turn in the politeness scheduler; the timeout starts once it is sent.
+     * Fetches to hosts that repeatedly failed to connect are rejected by the circuit breaker.
+     *
+     * @param url The page URL
+     * @param timeout The time allowed for the whole page
+     * @param previous The outcome whose validators make the request conditional, or null
+     * @return A Mono emitting the page, empty if the page has no readable content,
+     *         or an error if the site could not be reached or answered with a server error
+     */
+    private Mono<Page> scanPage(String url, Duration timeout, CrawlResultCache.Outcome previous) {
+        String host = DomainNames.host(url);
+        if (host == null) {
+            return Mono.error(new IllegalArgumentException("Invalid website URL: " + url));
+        }
+        // Hosts with an open circuit fail before they take a place in the politeness queue
+        return hostCircuitBreaker.protect(host,
+                hostCrawlScheduler.schedule(DomainNames.politenessKey(url), fetchPage(url, timeout, previous)));
+    }
+
+    private Mono<Page> fetchPage(String url, Duration timeout, CrawlResultCache.Outcome previous) {
+        return crawlerWebClient.get()
+                .uri(url)
+                .header("User-Agent", USER_AGENT)
+                .headers(headers -> {
+                    if (previous != null && previous.getEtag() != null) {
+                        headers.setIfNoneMatch(previous.getEtag());
+                    }
+                    if (previous != null && previous.getLastModified() != null) {
+                        // Sent back exactly as received, as recommended for If-Modified-Since
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, previous.getLastModified());
+                    }
+                })
+                .exchangeToMono(response -> {
+                    MediaType contentType = response.headers().contentType().orElse(null);
+                    if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return response.releaseBody().thenReturn(new Page(true, null, null, null));
+                    }
+                    if (response.statusCode().is5xxServerError()) {
+                        return response.createException().flatMap(Mono::error);
+                    }
+                    if (!response.statusCode().is2xxSuccessful() || !isTextual(contentType)) {
+                        return response.releaseBody().then(Mono.empty());
+                    }
+                    // Scanning is kept off the event loop shared with the Places API client
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    return emailScanner.scan(response.bodyToFlux(DataBuffer.class).publishOn(crawlScheduler), contentType)
+                            .map(result -> new Page(false, headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED), result));
+                })
+                .timeout(timeout);
+    }
+
+    private static boolean isTextual(MediaType contentType) {
+        return contentType == null
+                || "text".equals(contentType.getType())
+                || contentType.getSubtype().contains("html")
+                || contentType.getSubtype().contains("xml");
+    }
+
+    /**
+     * Scans the candidate contact pages concurrently, at most {@code contactPageFanOut} at a time.
+     * The first page with an email wins and the fetches still running are cancelled.
+     *
+     * @param candidates The candidate URLs, most likely first
+     * @return A Mono emitting the first email found, or empty if no candidate has one
+     */
+    private Mono<String> raceContactPages(List<String> candidates) {
+        return Flux.fromIterable(candidates)
+                .flatMap(url -> scanPage(url, CONTACT_PAGE_TIMEOUT, null)
+                        .mapNotNull(Page::getScan)
+                        .mapNotNull(EmailScanner.Result::getEmail)
+                        .doOnNext(email -> log.info("Found email on contact page {}: {}", url, email))
+                        .onErrorResume(e -> {
+                            log.debug("Failed to extract email from contact page: {}", url, e);
+                            return Mono.empty();
+                        }), contactPageFanOut)
+                .next();
+    }
+
+    /**
+     * Collects the contact pages to try: the same-site links found on the home page first,
+     * then well-known contact paths, without duplicates and up to the configured maximum.
+     */
+    List<String> contactPageCandidates(String pageUrl, List<String> links) {
+        Set<String> candidates = new LinkedHashSet<>();
+        URI base;
+        try {
+            base = URI.create(pageUrl);
+            // Without a path, relative links would be appended to the host name
+            if (base.getHost() != null && (base.getRawPath() == null || base.getRawPath().isEmpty())) {
+                base = base.resolve("/");
+            }
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+        URI root = base;
+        String homePage = withoutTrailingSlash(base.toString());
+
+        Stream.concat(links.stream().map(link -> link.trim().replace("&amp;", "&")), WELL_KNOWN_CONTACT_PATHS.stream())
+                .forEach(link -> {
+                    try {
+                        URI resolved = root.resolve(link);
+                        if (resolved.getHost() != null
+                                && stripWww(resolved.getHost()).equalsIgnoreCase(stripWww(root.getHost()))
+                                && ("http".equals(resolved.getScheme()) || "https".equals(resolved.getScheme()))) {
+                            String url = withoutTrailingSlash(resolved.toString());
+                            if (!url.equals(homePage)) {
+                                candidates.add(url);
+                            }
+                        }
+                    } catch (IllegalArgumentException e) {
+                        log.debug("Ignoring malformed contact link: {}", link);
+                    }
+                });
+        return candidates.stream().limit(maxContactPages).toList();
+    }
+
+    private static String withoutTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private static String stripWww(String host) {
+        return host.regionMatches(true, 0, "www.", 0, 4) ? host.substring(4) : host;
+    }
+
+    /**
+     * A fetched page: either not modified since the validators sent, or scanned together with its validators.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class Page {
+        private final boolean notModified;
+        private final String etag;
+        private final String lastModified;
+        private final EmailScanner.Result scan;
+    }
+}
@@ -1,27 +1,36 @@
 package com.mybusinessextractor.service.impl;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybusinessextractor.dto.PlaceResult;
 import com.mybusinessextractor.model.Business;
 import com.mybusinessextractor.service.GooglePlacesService;
+import com.mybusinessextractor.service.StatsProvider;
+import com.mybusinessextractor.util.HedgingPolicy;
+import com.mybusinessextractor.util.PlaceDetailsCache;
+import com.mybusinessextractor.util.PlacesRateLimiter;
+import com.mybusinessextractor.util.PlacesResponseDecoder;
+import com.mybusinessextractor.util.SearchResultCache;
+import com.mybusinessextractor.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
-import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Implementation of Google Places API service.
@@ -29,10 +38,18 @@ import java.util.regex.Pattern;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class GooglePlacesServiceImpl implements GooglePlacesService {
+public class GooglePlacesServiceImpl implements GooglePlacesService, StatsProvider {
 
-    private final WebClient webClient;
-    private final ObjectMapper objectMapper;
+    @Qualifier("placesWebClient")
+    private final WebClient placesWebClient;
+    private final PlacesResponseDecoder placesResponseDecoder;
+    private final PlaceDetailsCache placeDetailsCache;
+    private final SearchResultCache searchResultCache;
+    private final PlacesRateLimiter placesRateLimiter;
+    private final HedgingPolicy hedgingPolicy;
+
+    // Concurrent callers for the same place share one outstanding call
+    private final SingleFlight<Business> detailsInFlight = new SingleFlight<>();
 
     @Value("${google.places.api.key}")
     private String apiKey;
@@ -40,6 +57,9 @@ public class GooglePlacesServiceImpl implements GooglePlacesService {
     @Value("${google.places.api.base-url}")
     private String baseUrl;
 
+    // Google requires a short delay before a next_page_token becomes valid
+    private static final Duration PAGE_TOKEN_DELAY = Duration.ofSeconds(2);
+
     private static final Map<String, String> CATEGORY_TRANSLATIONS = Map.of(
         "Diş Hekimliği", "dental clinic",
         "Diş", "dental",
@@ -79,9 +99,26 @@ public class GooglePlacesServiceImpl implements GooglePlacesService {
         // This approach yields better and more comprehensive results across different locations
         String query = String.format("%s in %s", searchCategory, searchLocation);
         String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
+        String cacheKey = searchResultCache.key(searchCategory, searchLocation);
         
-        // Use a more region-targeted approach for detailed results
-        return fetchPlacesPage(encodedQuery, null);
+        return Flux.defer(() -> {
+            List<Business> cached = searchResultCache.get(cacheKey);
+            if (cached != null) {
+                log.info("Using {} cached results for '{}'", cached.size(), query);
+                return Flux.fromIterable(cached);
+            }
+            
+            // Collect copies of the basic results so the whole page chain can be cached once it completes
+            List<Business> found = new ArrayList<>();
+            
+            // Use a more region-targeted approach for detailed results.
+            // Pages are requested regardless of downstream demand so the next page is fetched
+            // while the results of the current one are still being enriched.
+            return fetchPlacesPage(encodedQuery, null)
+                    .doOnNext(business -> found.add(business.toBuilder().build()))
+                    .doOnComplete(() -> searchResultCache.put(cacheKey, found))
+                    .onBackpressureBuffer();
+        });
     }
 
     /**
@@ -101,58 +138,56 @@ public class GooglePlacesServiceImpl implements GooglePlacesService {
             log.info("Making initial API request: {}", url.replace(apiKey, "API_KEY_HIDDEN"));
         }
         
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(String.class)
-                .flatMapMany(response -> {
-                    try {
-                        JsonNode root = objectMapper.readTree(response);
-                        String status = root.path("status").asText();
+        // The places of a page are held back until its status has been read, so a retry after a
+        // failure in the middle of the body starts the page afresh instead of emitting places twice
+        Mono<Page> page = Mono.defer(() -> {
+            List<Business> places = new ArrayList<>();
+            AtomicLong nextPageTokenSeenAt = new AtomicLong();
+            
+            return governed(placesWebClient.get()
+                    .uri(url)
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class))
+                    .transform(placesResponseDecoder::decode)
+                    .<Page>handle((part, sink) -> {
+                        if (part instanceof PlacesResponseDecoder.PlacePart placePart) {
+                            places.add(mapToBasicBusiness(placePart.getPlace()));
+                            return;
+                        }
+                        if (part instanceof PlacesResponseDecoder.NextPageTokenPart) {
+                            // The token activation delay starts counting as soon as the token is issued
+                            nextPageTokenSeenAt.set(System.nanoTime());
+                            return;
+                        }
+                        
+                        PlacesResponseDecoder.StatusPart statusPart = (PlacesResponseDecoder.StatusPart) part;
+                        String status = statusPart.getStatus();
                         
                         if ("REQUEST_DENIED".equals(status)) {
-                            String errorMessage = root.path("error_message").asText("Unknown error");
+                            String errorMessage = statusPart.getErrorMessage() != null 
+                                    ? statusPart.getErrorMessage() : "Unknown error";
                             log.error("Google Places API request denied: {}", errorMessage);
-                            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, 
-                                    "Google Places API request denied: " + errorMessage);
+                            sink.error(new ResponseStatusException(HttpStatus.BAD_GATEWAY, 
+                                    "Google Places API request denied: " + errorMessage));
+                            return;
                         }
                         
+                        checkQueryLimit(status);
+                        
                         if (!"OK".equals(status) && !"ZERO_RESULTS".equals(status)) {
                             log.error("Google Places API error: {}", status);
-                            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, 
-                                    "Google Places API error: " + status);
+                            sink.error(new ResponseStatusException(HttpStatus.BAD_GATEWAY, 
+                                    "Google Places API error: " + status));
+                            return;
                         }
                         
-                        JsonNode results = root.path("results");
-                        if (results.size() == 0) {
-                            log.warn("No results found for this page");
-                            return Flux.empty();
-                        } else {
-                            log.info("Found {} results on this page", results.size());
-                        }
-                        
-                        // Check for next page token
-                        String nextPageToken = root.path("next_page_token").asText(null);
-                        
-                        Flux<Business> currentPageFlux = Flux.fromIterable(results)
-                                .map(this::mapToBasicBusiness);
-                        
-                        // If we have a next page token, recursively fetch the next page after a delay
-                        // (Google requires a short delay before using the next_page_token)
-                        if (nextPageToken != null && !nextPageToken.isEmpty()) {
-                            log.info("Next page token found, will fetch next page after delay");
-                            return currentPageFlux.concatWith(
-                                    Mono.delay(Duration.ofSeconds(2))
-                                    .flatMapMany(ignored -> fetchPlacesPage(query, nextPageToken))
-                            );
-                        }
-                        
-                        return currentPageFlux;
-                    } catch (IOException e) {
-                        log.error("Error parsing Google Places API response", e);
-                        return Flux.error(e);
-                    }
-                })
+                        placesRateLimiter.onSuccess();
+                        String nextPageToken = places.isEmpty() ? null : statusPart.getNextPageToken();
+                        sink.next(new Page(places, nextPageToken, nextPageTokenSeenAt.get()));
+                    })
+                    .next();
+        })
+                .retryWhen(throttledRetry())
                 .retryWhen(Retry.fixedDelay(3, Duration.ofSeconds(2))
                         .filter(ex -> !(ex instanceof ResponseStatusException))
                         .maxBackoff(Duration.ofSeconds(10))
@@ -164,6 +199,77 @@ public class GooglePlacesServiceImpl implements GooglePlacesService {
                             return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, 
                                     "Failed to retrieve data after multiple attempts");
                         }));
+        
+        return page.flatMapMany(currentPage -> {
+            if (currentPage.places.isEmpty()) {
+                log.warn("No results found for this page");
+                return Flux.empty();
+            }
+            log.info("Found {} results on this page", currentPage.places.size());
+            Flux<Business> currentPageFlux = Flux.fromIterable(currentPage.places);
+            
+            // If we have a next page token, recursively fetch the next page after a delay
+            // (Google requires a short delay before using the next_page_token)
+            String token = currentPage.nextPageToken;
+            if (token == null || token.isEmpty()) {
+                return currentPageFlux;
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - currentPage.nextPageTokenSeenAt);
+            Duration remainingDelay = PAGE_TOKEN_DELAY.minus(elapsed);
+            if (remainingDelay.isNegative()) {
+                remainingDelay = Duration.ZERO;
+            }
+            log.info("Next page token found, will fetch next page after {} ms", remainingDelay.toMillis());
+            return currentPageFlux.concatWith(Mono.delay(remainingDelay)
+                    .flatMapMany(ignored -> fetchPlacesPage(query, token)));
+        });
+    }
+
+    /**
+     * Sends a Places API request once the shared rate limiter allows it.
+     * HTTP 429 answers are reported to the rate limiter like OVER_QUERY_LIMIT statuses.
+     *
+     * @param request The request to send
+     * @return The request delayed by the rate limiter
+     */
+    private <T> Flux<T> governed(Flux<T> request) {
+        return placesRateLimiter.acquire()
+                .thenMany(request)
+                .doOnError(WebClientResponseException.TooManyRequests.class, e -> placesRateLimiter.onThrottled());
+    }
+
+    /**
+     * Reports an OVER_QUERY_LIMIT status to the rate limiter and fails the request so it can be retried.
+     *
+     * @param status The status of the Places API response
+     */
+    private void checkQueryLimit(String status) {
+        if ("OVER_QUERY_LIMIT".equals(status)) {
+            placesRateLimiter.onThrottled();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, 
+                    "Google Places API error: " + status);
+        }
+    }
+
+    /**
+     * Retries requests rejected for exceeding the query limit with exponential backoff.
+     * Each attempt goes through the rate limiter again, which has slowed down in the meantime.
+     */
+    private Retry throttledRetry() {
+        return Retry.backoff(5, Duration.ofSeconds(1))
+                .maxBackoff(Duration.ofSeconds(30))
+                .filter(this::isThrottled)
+                .doAfterRetry(retrySignal -> 
+                    log.warn("Places API over query limit, retrying. Attempt: {}/5", 
+                            retrySignal.totalRetries() + 1))
+                .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> 
+                    new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, 
+                            "Google Places API query limit still exceeded after multiple attempts"));
+    }
+
+    private boolean isThrottled(Throwable ex) {
+        return ex instanceof WebClientResponseException.TooManyRequests ||
+                (ex instanceof ResponseStatusException rse && rse.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS);
     }
 
     /**
@@ -174,181 +280,141 @@ public class GooglePlacesServiceImpl implements GooglePlacesService {
      */
     @Override
     public Business getBusinessDetails(String placeId) {
-        String url = String.format("%s/details/json?place_id=%s&fields=name,formatted_address,formatted_phone_number," +
-                "website,address_component,geometry,url,international_phone_number&key=%s", baseUrl, placeId, apiKey);
+        return fetchBusinessDetails(placeId).block();
+    }
 
-        try {
-            String response = webClient.get()
-                    .uri(url)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block(Duration.ofSeconds(10));
+    /**
+     * Fetches detailed information for a specific place without blocking the caller.
+     * Emails are not crawled here; see {@link com.mybusinessextractor.service.EmailCrawlerService}.
+     *
+     * @param placeId The Google Place ID
+     * @return A Mono emitting the Business object with detailed information
+     */
+    @Override
+    public Mono<Business> fetchBusinessDetails(String placeId) {
+        return detailsInFlight.execute(placeId, () -> requestPlaceDetails(placeId));
+    }
 
-            JsonNode root = objectMapper.readTree(response);
-            String status = root.path("status").asText();
-            
-            if (!"OK".equals(status)) {
-                log.error("Google Places API error: {}", status);
-                throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, 
-                        "Google Places API error: " + status);
+    /**
+     * Gets the details of a place from the details cache, falling back to the Place Details API.
+     *
+     * @param placeId The Google Place ID
+     * @return A Mono emitting the Business object with details
+     */
+    private Mono<Business> requestPlaceDetails(String placeId) {
+        return Mono.defer(() -> {
+            Business cached = placeDetailsCache.get(placeId);
+            if (cached != null) {
+                log.debug("Place details cache hit for {}", placeId);
+                return Mono.just(cached);
             }
-            
-            JsonNode result = root.path("result");
-            return mapToDetailedBusiness(result);
-        } catch (IOException e) {
-            log.error("Error parsing Google Places API response", e);
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
-                    "Error processing place details", e);
-        }
+            return fetchPlaceDetails(placeId)
+                    .doOnNext(business -> placeDetailsCache.put(placeId, business));
+        });
     }
 
     /**
-     * Extracts email from a website by crawling (if possible).
+     * Requests the Place Details API and maps the response to a Business object.
      *
-     * @param website The website URL
-     * @return The extracted email or null if not found
+     * @param placeId The Google Place ID
+     * @return A Mono emitting the mapped Business object
      */
-    @Override
-    public String extractEmail(String website) {
-        if (website == null || website.isEmpty()) {
-            return null;
-        }
+    private Mono<Business> fetchPlaceDetails(String placeId) {
+        String url = String.format("%s/details/json?place_id=%s&fields=name,formatted_address,formatted_phone_number," +
+                "website,address_component,geometry,url,international_phone_number&key=%s", baseUrl, placeId, apiKey);
 
-        String sanitizedWebsite = website;
-        // Ensure website has proper protocol
-        if (!website.startsWith("http://") && !website.startsWith("https://")) {
-            sanitizedWebsite = "https://" + website;
-        }
+        // Only the HTTP exchange is timed out and hedged; the wait for a rate limiter token is not part of it.
+        // A hedge is sent only if a token is free right away, so it never queues behind other requests.
+        Mono<List<PlacesResponseDecoder.Part>> exchange = timed(placesWebClient.get()
+                .uri(url)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class))
+                .transform(placesResponseDecoder::decode)
+                .timeout(Duration.ofSeconds(10))
+                .collectList();
 
-        log.info("Attempting to extract email from website: {}", sanitizedWebsite);
-        
-        try {
-            // Set timeout and user agent to appear more like a browser request
-            String response = webClient.get()
-                    .uri(sanitizedWebsite)
-                    .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36")
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(15))
-                    .block(Duration.ofSeconds(20));
-
-            if (response != null) {
-                // Pattern for matching email addresses (improved regex)
-                Pattern pattern = Pattern.compile("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,6}");
-                Matcher matcher = pattern.matcher(response);
-                
-                // Find all matches and return the first valid one
-                while (matcher.find()) {
-                    String potentialEmail = matcher.group();
-                    // Basic validation - check for common disposable domains or suspicious patterns
-                    if (!potentialEmail.contains("example.com") && 
-                        !potentialEmail.contains("domain.com") && 
-                        !potentialEmail.contains("email.com") &&
-                        potentialEmail.length() < 100) { // Simple length check to avoid malformed matches
-                        
-                        log.info("Successfully extracted email: {} from {}", potentialEmail, sanitizedWebsite);
-                        return potentialEmail;
-                    }
-                }
-                
-                // If no emails found in the main page, try to check contact page if it exists
-                if (response.contains("contact") || response.contains("Contact") || response.contains("CONTACT")) {
-                    // Try to find contact page links
-                    Pattern contactPattern = Pattern.compile("href=[\"'](/contact[^\"']*|/about[^\"']*|/kontakt[^\"']*)[\"']", 
-                            Pattern.CASE_INSENSITIVE);
-                    Matcher contactMatcher = contactPattern.matcher(response);
-                    
-                    if (contactMatcher.find()) {
-                        String contactPath = contactMatcher.group(1);
-                        String contactUrl = sanitizedWebsite;
-                        if (contactUrl.endsWith("/")) {
-                            contactUrl = contactUrl.substring(0, contactUrl.length() - 1);
+        return governed(hedgingPolicy.hedge(exchange, placesRateLimiter::tryAcquire).flux())
+                .next()
+                .map(parts -> {
+                    PlaceResult result = null;
+                    String status = null;
+                    for (PlacesResponseDecoder.Part part : parts) {
+                        if (part instanceof PlacesResponseDecoder.PlacePart placePart) {
+                            result = placePart.getPlace();
+                        } else {
+                            status = ((PlacesResponseDecoder.StatusPart) part).getStatus();
                         }
-                        contactUrl += contactPath;
-                        
-                        log.info("Checking contact page for email: {}", contactUrl);
-                        return extractEmailFromContactPage(contactUrl);
                     }
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Failed to extract email from website: {}", sanitizedWebsite, e);
-        }
-        
-        return null;
+
+                    checkQueryLimit(status);
+
+                    if (!"OK".equals(status) || result == null) {
+                        log.error("Google Places API error: {}", status);
+                        throw new ResponseStatusException(HttpStatus.BAD_GATEWAY,
+                                "Google Places API error: " + status);
+                    }
+
+                    placesRateLimiter.onSuccess();
+                    return mapToDetailedBusiness(result);
+                })
+                .retryWhen(throttledRetry());
     }
 
     /**
-     * Helper method to extract email from a contact page.
-     * 
-     * @param contactUrl The URL of the contact page
-     * @return The extracted email or null if not found
+     * Records the latency of a Place Details response for the hedging policy.
+     * The clock starts on subscription, i.e. after the rate limiter has let the request through,
+     * so the samples and the hedge delay derived from them cover the HTTP exchange only.
+     *
+     * @param body The response body
+     * @return The same body, timed
      */
-    private String extractEmailFromContactPage(String contactUrl) {
-        try {
-            String response = webClient.get()
-                    .uri(contactUrl)
-                    .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36")
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .block(Duration.ofSeconds(15));
-                    
-            if (response != null) {
-                Pattern pattern = Pattern.compile("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,6}");
-                Matcher matcher = pattern.matcher(response);
-                
-                if (matcher.find()) {
-                    String email = matcher.group();
-                    log.info("Found email on contact page: {}", email);
-                    return email;
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Failed to extract email from contact page: {}", contactUrl, e);
-        }
-        
-        return null;
+    private Flux<DataBuffer> timed(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return body.doOnComplete(() -> hedgingPolicy.recordLatency(System.nanoTime() - start));
+        });
+    }
+
+    @Override
+    public String getStatsName() {
+        return "placeDetailsCoalescing";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        return detailsInFlight.getStats();
     }
 
     /**
-     * Maps a JSON node from Places API to a basic Business object.
+     * Maps a place from the Text Search API to a basic Business object.
      */
-    private Business mapToBasicBusiness(JsonNode node) {
-        String placeId = node.path("place_id").asText();
-        String name = node.path("name").asText();
-        String vicinity = node.path("vicinity").asText();
-        JsonNode location = node.path("geometry").path("location");
-        Double lat = location.path("lat").asDouble();
-        Double lng = location.path("lng").asDouble();
+    private Business mapToBasicBusiness(PlaceResult place) {
+        String placeId = valueOrEmpty(place.getPlaceId());
+        PlaceResult.Location location = locationOf(place);
         
         return Business.builder()
                 .id(placeId)
-                .businessName(name)
-                .address(vicinity)
-                .latitude(lat)
-                .longitude(lng)
+                .businessName(valueOrEmpty(place.getName()))
+                .address(valueOrEmpty(place.getVicinity()))
+                .latitude(location.getLat())
+                .longitude(location.getLng())
                 .mapsLink(String.format("https://www.google.com/maps/place/?q=place_id:%s", placeId))
                 .build();
     }
 
     /**
-     * Maps a JSON node from Place Details API to a detailed Business object.
+     * Maps a place from the Place Details API to a detailed Business object.
      */
-    private Business mapToDetailedBusiness(JsonNode node) {
-        String placeId = node.path("place_id").asText();
-        String name = node.path("name").asText();
-        String address = node.path("formatted_address").asText();
-        String phone = node.path("formatted_phone_number").asText();
-        String website = node.path("website").asText(null);
+    private Business mapToDetailedBusiness(PlaceResult place) {
+        String placeId = valueOrEmpty(place.getPlaceId());
+        String name = valueOrEmpty(place.getName());
+        String website = place.getWebsite();
         
         if (website == null || website.isEmpty()) {
-            website = node.path("url").asText(null);
+            website = place.getUrl();
         }
         
-        JsonNode location = node.path("geometry").path("location");
-        Double lat = location.path("lat").asDouble();
-        Double lng = location.path("lng").asDouble();
+        PlaceResult.Location location = locationOf(place);
 
         // Extract address components
         String city = "";
@@ -356,53 +422,73 @@ public class GooglePlacesServiceImpl implements GooglePlacesService {
         String postalCode = "";
         String country = "";
         
-        JsonNode addressComponents = node.path("address_components");
-        for (JsonNode component : addressComponents) {
-            JsonNode types = component.path("types");
-            String longName = component.path("long_name").asText();
-            
-            for (JsonNode type : types) {
-                String typeValue = type.asText();
+        if (place.getAddressComponents() != null) {
+            for (PlaceResult.AddressComponent component : place.getAddressComponents()) {
+                if (component.getTypes() == null) {
+                    continue;
+                }
+                String longName = valueOrEmpty(component.getLongName());
                 
-                switch (typeValue) {
-                    case "locality":
-                        city = longName;
-                        break;
-                    case "administrative_area_level_1":
-                        state = longName;
-                        break;
-                    case "postal_code":
-                        postalCode = longName;
-                        break;
-                    case "country":
-                        country = longName;
-                        break;
+                for (String typeValue : component.getTypes()) {
+                    switch (typeValue) {
+                        case "locality":
+                            city = longName;
+                            break;
+                        case "administrative_area_level_1":
+                            state = longName;
+                            break;
+                        case "postal_code":
+                            postalCode = longName;
+                            break;
+                        case "country":
+                            country = longName;
+                            break;
+                    }
                 }
             }
         }
 
-        // Extract email from website if possible and website is not null
-        String email = website != null ? extractEmail(website) : null;
-
         log.info("Found website: {} for business: {}", website, name);
-        if (email != null) {
-            log.info("Extracted email: {} from website", email);
-        }
 
         return Business.builder()
                 .id(placeId)
                 .businessName(name)
-                .address(address)
+                .address(valueOrEmpty(place.getFormattedAddress()))
                 .city(city)
                 .state(state)
                 .postalCode(postalCode)
                 .country(country)
-                .phone(phone)
-                .email(email)
+                .phone(valueOrEmpty(place.getFormattedPhoneNumber()))
                 .website(website)
-                .latitude(lat)
-                .longitude(lng)
+                .latitude(location.getLat())
+                .longitude(location.getLng())
                 .mapsLink(String.format("https://www.google.com/maps/place/?q=place_id:%s", placeId))
                 .build();
     }
-} 
\ No newline at end of file
+
+    private PlaceResult.Location locationOf(PlaceResult place) {
+        if (place.getGeometry() == null || place.getGeometry().getLocation() == null) {
+            return new PlaceResult.Location();
+        }
+        return place.getGeometry().getLocation();
+    }
+
+    private String valueOrEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * The places of one text search page and its token for the next page.
+     */
+    private static final class Page {
+        private final List<Business> places;
+        private final String nextPageToken;
+        private final long nextPageTokenSeenAt;
+
+        private Page(List<Business> places, String nextPageToken, long nextPageTokenSeenAt) {
+            this.places = places;
+            this.nextPageToken = nextPageToken;
+            this.nextPageTokenSeenAt = nextPageTokenSeenAt;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.mybusinessextractor.service.impl;
+
+import com.mybusinessextractor.dto.JobEvent;
+import com.mybusinessextractor.dto.TaskProgressUpdate;
+import com.mybusinessextractor.dto.TaskStatus;
+import com.mybusinessextractor.model.Business;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Live event stream of one search job for one subscriber.
+ * On every tick the stream compares the progress version and the length of the result log
+ * with what it has sent, and sends only the tasks that changed and the businesses appended
+ * since. Ticks that arrive while the subscriber is still busy are dropped, so a slow client
+ * gets coalesced updates instead of a backlog. The ID of every event is the position after
+ * it, "progressVersion:resultCount", from which a reconnecting client continues.
+ */
+class JobEventStream {
+
+    private final SearchJob job;
+    private final int batchSize;
+    private final long heartbeatNanos;
+    private long version;
+    private long results;
+    private boolean initial;
+    private boolean finished;
+    private long lastSent = System.nanoTime();
+
+    /**
+     * @param job The job to stream
+     * @param lastEventId The ID of the last event the client received, or null to start from the beginning
+     * @param batchSize The maximum number of businesses per event
+     * @param heartbeat The idle time after which a heartbeat is sent
+     */
+    JobEventStream(SearchJob job, String lastEventId, int batchSize, Duration heartbeat) {
+        this.job = job;
+        this.batchSize = batchSize;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.initial = !resume(lastEventId);
+    }
+
+    /**
+     * @param interval The time between checks for new data
+     * @return The events, completing after the event that reports the job finished
+     */
+    Flux<JobEvent> events(Duration interval) {
+        return Flux.interval(Duration.ZERO, interval, Schedulers.boundedElastic())
+                .onBackpressureDrop()
+                .concatMapIterable(tick -> poll(), 1)
+                .takeUntil(event -> JobEvent.FINISHED.equals(event.getType()));
+    }
+
+    private List<JobEvent> poll() {
+        List<JobEvent> events = new ArrayList<>();
+        if (finished) {
+            return events;
+        }
+        // Checked first: once finished, nothing is appended, so everything read below is final
+        boolean jobFinished = job.isFinished();
+
+        long currentVersion = job.getVersion();
+        if (initial || jobFinished || currentVersion != version) {
+            List<TaskStatus> changed = job.getChangesSince(initial || jobFinished ? 0 : version);
+            version = currentVersion;
+            if (!changed.isEmpty()) {
+                events.add(event(JobEvent.TASKS, TaskProgressUpdate.builder()
+                        .jobId(job.getId())
+                        .version(currentVersion)
+                        .finished(jobFinished)
+                        .tasks(changed)
+                        .build()));
+            }
+            initial = false;
+        }
+
+        long sequence = job.getResultSequence();
+        while (results < sequence) {
+            List<Business> batch = job.getResultsAfter(results, (int) Math.min(batchSize, sequence - results));
+            results += batch.size();
+            events.add(event(JobEvent.RESULTS, batch));
+        }
+
+        if (jobFinished) {
+            finished = true;
+            events.add(event(JobEvent.FINISHED, job.getId()));
+        }
+
+        long now = System.nanoTime();
+        if (!events.isEmpty()) {
+            lastSent = now;
+        } else if (now - lastSent >= heartbeatNanos) {
+            lastSent = now;
+            events.add(JobEvent.builder().type(JobEvent.HEARTBEAT).build());
+        }
+        return events;
+    }
+
+    private JobEvent event(String type, Object data) {
+        return JobEvent.builder().id(version + ":" + results).type(type).data(data).build();
+    }
+
+    /**
+     * Continues from the position of an event ID.
+     *
+     * @return Whether the ID was a valid position
+     */
+    private boolean resume(String lastEventId) {
+        if (lastEventId == null) {
+            return false;
+        }
+        String[] parts = lastEventId.split(":");
+        if (parts.length != 2) {
+            return false;
+        }
+        try {
+            long resumedVersion = Long.parseLong(parts[0]);
+            long resumedResults = Long.parseLong(parts[1]);
+            // A position beyond the job is from before a restart, when the job was rebuilt from its journal
+            if (resumedVersion < 0 || resumedVersion > job.getVersion()
+                    || resumedResults < 0 || resumedResults > job.getResultSequence()) {
+                return false;
+            }
+            version = resumedVersion;
+            results = resumedResults;
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
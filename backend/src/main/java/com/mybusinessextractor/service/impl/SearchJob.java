@@ -0,0 +1,182 @@
+package com.mybusinessextractor.service.impl;
+
+import com.mybusinessextractor.dto.JobPriority;
+import com.mybusinessextractor.dto.TaskStatus;
+import com.mybusinessextractor.model.Business;
+import com.mybusinessextractor.util.ChunkedAppendBuffer;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * State of one search: its tasks and the businesses found so far.
+ * Jobs are independent of each other, so concurrent searches never see or clear each other's results.
+ * Every change to the progress of a task advances the progress version of the job, which lets
+ * pollers ask only for the tasks that changed since the version they saw last.
+ * Businesses are appended to a result log whose entries are numbered from 1, so readers fetch
+ * the entries after the sequence number they have seen instead of the whole list.
+ */
+@Getter
+class SearchJob {
+
+    private final String id;
+    private final JobPriority priority;
+    private final Instant createdAt;
+    private final ChunkedAppendBuffer<Business> results = new ChunkedAppendBuffer<>();
+    // Every business when it is added and again whenever it changes, e.g. when its email is backfilled
+    private final ChunkedAppendBuffer<Business> resultLog = new ChunkedAppendBuffer<>();
+    private final Map<String, TaskProgress> tasks = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    // Tasks that have not completed or failed plus email crawls that have not finished
+    private final AtomicInteger pendingWork = new AtomicInteger();
+    // Set once the job has been seen finished; finished jobs are evicted after the retention period
+    private volatile Instant finishedAt;
+
+    SearchJob(String id, JobPriority priority) {
+        this(id, priority, Instant.now());
+    }
+
+    SearchJob(String id, JobPriority priority, Instant createdAt) {
+        this.id = id;
+        this.priority = priority;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * @return The progress version of the job, advanced by every change to one of its tasks
+     */
+    long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Checks a counter maintained by the task updates instead of scanning the tasks. The counter
+     * is lowered only after a change is published, so once the job is finished the versions
+     * and snapshots of its tasks include their last changes.
+     *
+     * @return Whether all tasks have completed or failed and all their email crawls have finished
+     */
+    boolean isFinished() {
+        return pendingWork.get() == 0;
+    }
+
+    /**
+     * @return Snapshots of the task statuses, ordered by task ID
+     */
+    List<TaskStatus> getTaskList() {
+        return getChangesSince(0);
+    }
+
+    /**
+     * Gets snapshots of the tasks that changed after a progress version. Read the job version
+     * before calling this and hand it to the caller as the version to ask from next time.
+     *
+     * @param sinceVersion The progress version the caller has seen, or 0 for all tasks
+     * @return Snapshots of the changed tasks, ordered by task ID
+     */
+    List<TaskStatus> getChangesSince(long sinceVersion) {
+        return tasks.values().stream()
+                .filter(task -> sinceVersion == 0 || task.getVersion() > sinceVersion)
+                .map(TaskProgress::snapshot)
+                .sorted(Comparator.comparingInt(task -> Integer.parseInt(task.getId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Records the time the job was first seen finished.
+     *
+     * @return Whether the job has been seen finished for the first time
+     */
+    boolean markIfFinished() {
+        if (finishedAt == null && isFinished()) {
+            finishedAt = Instant.now();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return The sequence number of the last entry in the result log, or 0 if it is empty
+     */
+    long getResultSequence() {
+        return resultLog.size();
+    }
+
+    /**
+     * Gets result log entries after a sequence number. A business appears again after each change.
+     *
+     * @param afterSequence The sequence number of the last entry the caller has seen, or 0
+     * @param limit The maximum number of entries
+     * @return The entries in sequence order
+     */
+    List<Business> getResultsAfter(long afterSequence, int limit) {
+        return resultLog.range(afterSequence, limit);
+    }
+
+    void addResult(Business business) {
+        results.append(business);
+        resultLog.append(business);
+    }
+
+    /**
+     * Logs a change to a business already in the results, so streams send it again.
+     */
+    void resultUpdated(Business business) {
+        resultLog.append(business);
+    }
+
+    void addTask(TaskProgress task) {
+        if (tasks.putIfAbsent(task.getId(), task) == null && !TaskProgress.isTerminal(task.getStatus())) {
+            pendingWork.incrementAndGet();
+        }
+    }
+
+    void increment(String taskId, TaskProgress.Stage stage) {
+        add(taskId, stage, 1);
+    }
+
+    void add(String taskId, TaskProgress.Stage stage, int delta) {
+        TaskProgress task = tasks.get(taskId);
+        if (task != null) {
+            task.add(stage, delta);
+            publish(task);
+            if (stage == TaskProgress.Stage.CRAWL_QUEUED) {
+                pendingWork.addAndGet(delta);
+            } else if (stage == TaskProgress.Stage.CRAWLED) {
+                pendingWork.addAndGet(-delta);
+            }
+        }
+    }
+
+    void setTaskState(String taskId, String status, String message) {
+        TaskProgress task = tasks.get(taskId);
+        if (task != null) {
+            String previous = task.setState(status, message);
+            publish(task);
+            if (TaskProgress.isTerminal(status) && !TaskProgress.isTerminal(previous)) {
+                pendingWork.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Assigns the next job version to a changed task. The task version is raised before the job
+     * version is, so whoever reads job version V finds every task changed at or before V with a
+     * version of at least its change, and a poll from V never misses a change.
+     */
+    private void publish(TaskProgress task) {
+        long current;
+        do {
+            current = version.get();
+            task.advanceVersion(current + 1);
+        } while (!version.compareAndSet(current, current + 1));
+    }
+}
@@ -0,0 +1,122 @@
+package com.mybusinessextractor.service.impl;
+
+import com.mybusinessextractor.dto.TaskStatus;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Live progress of one task, updated without locks from the concurrent stages of the task.
+ * Every stage has its own atomic counter. Each change advances the version of the task, and
+ * readers get an immutable {@link TaskStatus} snapshot that is rebuilt only after a change.
+ */
+class TaskProgress {
+
+    /**
+     * Stages counted per business of a task.
+     */
+    enum Stage {
+        FOUND, DETAILED, FAILED, PERSISTED, CRAWL_QUEUED, CRAWLED
+    }
+
+    private final String id;
+    private final String category;
+    private final String location;
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(Stage.values().length);
+    private final AtomicReference<State> state;
+    private final AtomicLong version = new AtomicLong();
+    // Last snapshot handed out; replaced once the version has moved on
+    private volatile TaskStatus snapshot;
+
+    TaskProgress(String id, String category, String location) {
+        this.id = id;
+        this.category = category;
+        this.location = location;
+        this.state = new AtomicReference<>(new State("PENDING", null));
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getStatus() {
+        return state.get().status;
+    }
+
+    int get(Stage stage) {
+        return counts.get(stage.ordinal());
+    }
+
+    /**
+     * @return The job version of the last change, or 0 if the task has not changed since it was created
+     */
+    long getVersion() {
+        return version.get();
+    }
+
+    void add(Stage stage, int delta) {
+        counts.addAndGet(stage.ordinal(), delta);
+    }
+
+    /**
+     * @return The previous status
+     */
+    String setState(String status, String message) {
+        return state.getAndSet(new State(status, message)).status;
+    }
+
+    /**
+     * Raises the version to at least the given job version.
+     * Called after the change it stands for, so a reader that sees the version also sees the change.
+     */
+    void advanceVersion(long jobVersion) {
+        version.accumulateAndGet(jobVersion, Math::max);
+    }
+
+    static boolean isTerminal(String status) {
+        return "COMPLETED".equals(status) || "FAILED".equals(status);
+    }
+
+    /**
+     * Gets an immutable snapshot of the progress. The version is read before the counters, so
+     * the snapshot contains at least every change up to its version.
+     */
+    TaskStatus snapshot() {
+        long current = version.get();
+        TaskStatus cached = snapshot;
+        if (cached != null && cached.getVersion() == current) {
+            return cached;
+        }
+        State currentState = state.get();
+        int detailed = get(Stage.DETAILED);
+        int failed = get(Stage.FAILED);
+        TaskStatus fresh = TaskStatus.builder()
+                .id(id)
+                .category(category)
+                .location(location)
+                .status(currentState.status)
+                .message(currentState.message)
+                .totalItems(get(Stage.FOUND))
+                .detailedItems(detailed)
+                .failedItems(failed)
+                .processedItems(detailed + failed)
+                .persistedItems(get(Stage.PERSISTED))
+                .crawlTotalItems(get(Stage.CRAWL_QUEUED))
+                .crawledItems(get(Stage.CRAWLED))
+                .version(current)
+                .build();
+        snapshot = fresh;
+        return fresh;
+    }
+
+    private static final class State {
+        private final String status;
+        private final String message;
+
+        private State(String status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.mybusinessextractor.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Concurrent append-only buffer stored in fixed-size chunks.
+ * Appending never copies earlier elements: a writer claims a slot with one atomic increment and
+ * writes the element into its chunk, allocating the chunk if it is the first to reach it. Chunks
+ * are found through a directory of segments that double in size and are never reallocated, so
+ * chunk allocation needs no lock either. Readers see a prefix of the buffer with no gaps: after
+ * writing, each writer advances the published size over every slot that has been filled, also
+ * those filled by other writers. Elements are never removed or replaced, so a snapshot is just a
+ * view of the published prefix and costs nothing to take.
+ *
+ * @param <T> The element type
+ */
+public final class ChunkedAppendBuffer<T> {
+
+    private static final int DEFAULT_CHUNK_SHIFT = 10;
+    // Segment k of the directory holds 2^k chunks, so 31 segments cover every int index with chunks of 2 or more
+    private static final int SEGMENTS = 31;
+
+    private final int chunkShift;
+    private final int chunkMask;
+    private final AtomicReferenceArray<AtomicReferenceArray<AtomicReferenceArray<T>>> directory =
+            new AtomicReferenceArray<>(SEGMENTS);
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final AtomicInteger published = new AtomicInteger();
+
+    /**
+     * Creates a buffer with chunks of 1024 elements.
+     */
+    public ChunkedAppendBuffer() {
+        this(DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * @param chunkShift The base-2 logarithm of the chunk size
+     */
+    public ChunkedAppendBuffer(int chunkShift) {
+        if (chunkShift < 1 || chunkShift > 20) {
+            throw new IllegalArgumentException("Chunk shift must be between 1 and 20: " + chunkShift);
+        }
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1 << chunkShift) - 1;
+    }
+
+    /**
+     * Appends an element.
+     *
+     * @param element The element, not null
+     * @return The sequence number of the element, which is its index plus one
+     */
+    public int append(T element) {
+        if (element == null) {
+            throw new NullPointerException("Element must not be null");
+        }
+        int index = claimed.getAndIncrement();
+        if (index < 0) {
+            claimed.decrementAndGet();
+            throw new IllegalStateException("Buffer is full");
+        }
+        chunk(index >>> chunkShift, true).set(index & chunkMask, element);
+        publish();
+        return index + 1;
+    }
+
+    /**
+     * @return The number of published elements
+     */
+    public int size() {
+        return published.get();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @param index The index, below {@link #size()}
+     * @return The element at the index
+     */
+    public T get(int index) {
+        if (index < 0 || index >= published.get()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + published.get());
+        }
+        return element(index);
+    }
+
+    /**
+     * Copies the published elements after a sequence number.
+     *
+     * @param afterSequence The sequence number of the last element the caller has seen, or 0
+     * @param limit The maximum number of elements
+     * @return The elements in append order
+     */
+    public List<T> range(long afterSequence, int limit) {
+        int size = published.get();
+        int from = (int) Math.min(Math.max(afterSequence, 0), size);
+        int to = (int) Math.min(size, (long) from + Math.max(limit, 0));
+        List<T> elements = new ArrayList<>(to - from);
+        for (int index = from; index < to; index++) {
+            elements.add(element(index));
+        }
+        return elements;
+    }
+
+    /**
+     * Gets an unmodifiable view of the elements published so far. Later appends do not show up in
+     * the view, so it can be iterated and serialized while writers keep appending.
+     *
+     * @return The view
+     */
+    public List<T> snapshot() {
+        return new Snapshot(published.get());
+    }
+
+    private T element(int index) {
+        return chunk(index >>> chunkShift, false).get(index & chunkMask);
+    }
+
+    /**
+     * Advances the published size over the filled slots that follow it. A slot claimed by a
+     * writer that has not filled it yet stops the advance; that writer continues it later.
+     */
+    private void publish() {
+        int size = published.get();
+        while (size < claimed.get()) {
+            AtomicReferenceArray<T> chunk = chunk(size >>> chunkShift, false);
+            if (chunk == null || chunk.get(size & chunkMask) == null) {
+                return;
+            }
+            published.compareAndSet(size, size + 1);
+            size = published.get();
+        }
+    }
+
+    private AtomicReferenceArray<T> chunk(int chunkIndex, boolean create) {
+        // Chunk i lives in segment floor(log2(i + 1)) at offset i + 1 - 2^segment
+        int position = chunkIndex + 1;
+        int segmentIndex = 31 - Integer.numberOfLeadingZeros(position);
+        int offset = position - (1 << segmentIndex);
+
+        AtomicReferenceArray<AtomicReferenceArray<T>> segment = directory.get(segmentIndex);
+        if (segment == null) {
+            if (!create) {
+                return null;
+            }
+            directory.compareAndSet(segmentIndex, null, new AtomicReferenceArray<>(1 << segmentIndex));
+            segment = directory.get(segmentIndex);
+        }
+        AtomicReferenceArray<T> chunk = segment.get(offset);
+        if (chunk == null && create) {
+            segment.compareAndSet(offset, null, new AtomicReferenceArray<>(1 << chunkShift));
+            chunk = segment.get(offset);
+        }
+        return chunk;
+    }
+
+    private final class Snapshot extends AbstractList<T> implements RandomAccess {
+        private final int size;
+
+        private Snapshot(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+            }
+            return element(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.mybusinessextractor.util;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking permit pool that bounds how many reactive operations run at the same time.
+ * Callers that cannot get a permit wait in FIFO order without holding a thread.
+ */
+public class ConcurrencyLimiter {
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int CANCELLED = 2;
+
+    private final int maxConcurrency;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private int active;
+
+    public ConcurrencyLimiter(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Subscribes to the source only once a permit is available and releases the permit
+     * when the source completes, fails or is cancelled.
+     *
+     * @param source The operation to run
+     * @return A Mono that runs the source within the concurrency limit
+     */
+    public <T> Mono<T> limit(Mono<T> source) {
+        return Mono.usingWhen(acquire(), permit -> source,
+                this::release, (permit, e) -> release(permit), this::release);
+    }
+
+    /**
+     * Subscribes to the source only once a permit is available and holds the permit until
+     * the source terminates or is cancelled.
+     *
+     * @param source The operation to run
+     * @return A Flux that runs the source within the concurrency limit
+     */
+    public <T> Flux<T> limit(Flux<T> source) {
+        return Flux.usingWhen(acquire(), permit -> source,
+                this::release, (permit, e) -> release(permit), this::release);
+    }
+
+    /**
+     * @return The number of permits currently held
+     */
+    public synchronized int getActive() {
+        return active;
+    }
+
+    /**
+     * @return The number of callers waiting for a permit
+     */
+    public synchronized int getWaiting() {
+        return waiters.size();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            boolean granted;
+            synchronized (this) {
+                granted = active < maxConcurrency;
+                if (granted) {
+                    active++;
+                } else {
+                    waiters.addLast(waiter);
+                }
+            }
+
+            if (granted) {
+                waiter.state.set(GRANTED);
+                sink.success(waiter.permit);
+                return;
+            }
+
+            sink.onCancel(() -> {
+                if (waiter.state.compareAndSet(WAITING, CANCELLED)) {
+                    synchronized (this) {
+                        waiters.remove(waiter);
+                    }
+                } else {
+                    // The permit was handed over concurrently with the cancellation
+                    waiter.permit.release();
+                }
+            });
+        });
+    }
+
+    private Mono<Void> release(Permit permit) {
+        return Mono.fromRunnable(permit::release);
+    }
+
+    private void handOver() {
+        while (true) {
+            Waiter next;
+            synchronized (this) {
+                next = waiters.pollFirst();
+                if (next == null) {
+                    active--;
+                    return;
+                }
+            }
+            if (next.state.compareAndSet(WAITING, GRANTED)) {
+                next.sink.success(next.permit);
+                return;
+            }
+        }
+    }
+
+    private final class Waiter {
+        private final MonoSink<Permit> sink;
+        private final Permit permit = new Permit();
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    private final class Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                handOver();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.mybusinessextractor.util;
+
+import com.mybusinessextractor.service.StatsProvider;
+import org.springframework.stereotype.Component;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the occupancy of the Reactor Netty connection pools of all WebClients.
+ * Reactor Netty keeps one pool per remote address, so the figures are summed up per named provider.
+ */
+@Component
+public class ConnectionPoolStats implements ConnectionProvider.MeterRegistrar, StatsProvider {
+
+    private final Map<String, Map<String, ConnectionPoolMetrics>> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        pools.computeIfAbsent(poolName, name -> new ConcurrentHashMap<>()).put(id, metrics);
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        Map<String, ConnectionPoolMetrics> remotes = pools.get(poolName);
+        if (remotes != null) {
+            remotes.remove(id);
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "connectionPools";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        pools.forEach((poolName, remotes) -> {
+            int acquired = 0;
+            int idle = 0;
+            int pending = 0;
+            for (ConnectionPoolMetrics metrics : remotes.values()) {
+                acquired += metrics.acquiredSize();
+                idle += metrics.idleSize();
+                pending += metrics.pendingAcquireSize();
+            }
+            Map<String, Object> poolStats = new LinkedHashMap<>();
+            poolStats.put("remotes", remotes.size());
+            poolStats.put("acquired", acquired);
+            poolStats.put("idle", idle);
+            poolStats.put("pendingAcquire", pending);
+            stats.put(poolName, poolStats);
+        });
+        return stats;
+    }
+}
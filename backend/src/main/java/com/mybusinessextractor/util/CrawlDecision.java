@@ -0,0 +1,48 @@
+package com.mybusinessextractor.util;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Decision of the {@link CrawlEligibilityClassifier} for a website URL.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CrawlDecision {
+
+    /**
+     * What to do with a URL.
+     */
+    public enum Action {
+        /** Crawl the URL as a website */
+        CRAWL,
+        /** Do not fetch the URL at all */
+        SKIP,
+        /** Let the rule's handler find the URL to crawl instead */
+        SPECIAL
+    }
+
+    Action action;
+
+    // Reported in the per-reason counters
+    String reason;
+
+    // Maps the URL to the URL to crawl instead, or to empty if there is none; only set for SPECIAL
+    Function<String, Mono<String>> handler;
+
+    public static CrawlDecision crawl(String reason) {
+        return new CrawlDecision(Action.CRAWL, reason, null);
+    }
+
+    public static CrawlDecision skip(String reason) {
+        return new CrawlDecision(Action.SKIP, reason, null);
+    }
+
+    public static CrawlDecision special(String reason, Function<String, Mono<String>> handler) {
+        return new CrawlDecision(Action.SPECIAL, reason, handler);
+    }
+}
@@ -0,0 +1,66 @@
+package com.mybusinessextractor.util;
+
+import com.mybusinessextractor.service.StatsProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides before any fetch whether a website URL is worth crawling for an email address.
+ * Google Maps pages, social media profiles and similar URLs can never yield an email from a
+ * plain crawl; the {@link CrawlRule} beans recognize them, and every decision is counted by reason.
+ */
+@Component
+@RequiredArgsConstructor
+public class CrawlEligibilityClassifier implements StatsProvider {
+
+    private final List<CrawlRule> rules;
+
+    private final Map<String, AtomicLong> decisionsByReason = new ConcurrentHashMap<>();
+
+    /**
+     * Classifies a website URL.
+     *
+     * @param website The website URL, with or without scheme
+     * @return The decision of the first rule that applies, or CRAWL if none does
+     */
+    public CrawlDecision classify(String website) {
+        CrawlDecision decision = decide(website);
+        decisionsByReason.computeIfAbsent(decision.getAction().name().toLowerCase(Locale.ROOT) + ":" + decision.getReason(),
+                key -> new AtomicLong()).incrementAndGet();
+        return decision;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "crawlEligibility";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        decisionsByReason.forEach((reason, count) -> stats.put(reason, count.get()));
+        return stats;
+    }
+
+    private CrawlDecision decide(String website) {
+        String host = DomainNames.host(website);
+        if (host == null) {
+            return CrawlDecision.skip("invalid-url");
+        }
+        String url = website.startsWith("http://") || website.startsWith("https://") ? website : "https://" + website;
+        for (CrawlRule rule : rules) {
+            CrawlDecision decision = rule.classify(url, host);
+            if (decision != null) {
+                return decision;
+            }
+        }
+        return CrawlDecision.crawl("website");
+    }
+}
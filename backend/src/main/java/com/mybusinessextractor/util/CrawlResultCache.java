@@ -0,0 +1,185 @@
+package com.mybusinessextractor.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybusinessextractor.service.StatsProvider;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of website crawl outcomes keyed by registrable domain.
+ * Branches of a chain usually share one website, and sites without an email or that cannot be
+ * reached are not crawled again until their outcome expires. Each kind of outcome has its own
+ * time to live, since a found email stays valid much longer than a temporarily unreachable site.
+ * Outcomes keep the validators of the home page they were extracted from, and expired outcomes are
+ * retained for a while so that a recrawl can revalidate the home page instead of crawling it again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CrawlResultCache implements StatsProvider {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${cache.directory}")
+    private String cacheDirectory;
+
+    @Value("${cache.crawl-results.max-entries}")
+    private int maxEntries;
+
+    @Value("${cache.crawl-results.found-ttl}")
+    private Duration foundTtl;
+
+    @Value("${cache.crawl-results.not-found-ttl}")
+    private Duration notFoundTtl;
+
+    @Value("${cache.crawl-results.unreachable-ttl}")
+    private Duration unreachableTtl;
+
+    @Value("${cache.crawl-results.stale-retention}")
+    private Duration staleRetention;
+
+    @Value("${cache.flush-interval}")
+    private Duration flushInterval;
+
+    private PersistentTtlCache<Outcome> cache;
+    private Disposable flushTask;
+
+    // Hits per kind of outcome, i.e. crawls saved
+    private final Map<Status, AtomicLong> hitsByStatus = new EnumMap<>(Map.of(
+            Status.FOUND, new AtomicLong(),
+            Status.NOT_FOUND, new AtomicLong(),
+            Status.UNREACHABLE, new AtomicLong()));
+
+    @PostConstruct
+    void init() {
+        cache = new PersistentTtlCache<>("crawl results", maxEntries,
+                Paths.get(cacheDirectory, "crawl-results.json"), objectMapper, Outcome.class, staleRetention);
+        cache.load();
+        flushTask = Flux.interval(flushInterval, Schedulers.boundedElastic())
+                .subscribe(tick -> cache.saveIfDirty());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushTask.dispose();
+        cache.saveIfDirty();
+    }
+
+    /**
+     * Gets the cached crawl outcome of a domain.
+     *
+     * @param domain The registrable domain
+     * @return The cached outcome or null if not cached or stale
+     */
+    public Outcome get(String domain) {
+        Outcome outcome = cache.get(domain);
+        if (outcome != null) {
+            hitsByStatus.get(outcome.getStatus()).incrementAndGet();
+        }
+        return outcome;
+    }
+
+    /**
+     * Gets an expired crawl outcome of a domain that can be revalidated against its home page.
+     *
+     * @param domain The registrable domain
+     * @return The expired outcome, or null if there is none or it has no validators
+     */
+    public Outcome getStale(String domain) {
+        Outcome outcome = cache.getStale(domain);
+        return outcome != null && outcome.hasValidators() ? outcome : null;
+    }
+
+    /**
+     * Caches the crawl outcome of a domain with the time to live of its kind.
+     *
+     * @param domain The registrable domain
+     * @param outcome The crawl outcome
+     */
+    public void put(String domain, Outcome outcome) {
+        Duration ttl = switch (outcome.getStatus()) {
+            case FOUND -> foundTtl;
+            case NOT_FOUND -> notFoundTtl;
+            case UNREACHABLE -> unreachableTtl;
+        };
+        cache.put(domain, outcome, ttl);
+    }
+
+    @Override
+    public String getStatsName() {
+        return "crawlResultCache";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(cache.getStats());
+        Map<String, Object> hits = new LinkedHashMap<>();
+        hitsByStatus.forEach((status, count) -> hits.put(status.name(), count.get()));
+        stats.put("hitsByOutcome", hits);
+        return stats;
+    }
+
+    /**
+     * Kinds of crawl outcomes.
+     */
+    public enum Status {
+        FOUND, NOT_FOUND, UNREACHABLE
+    }
+
+    /**
+     * The outcome of crawling a website, with the validators of the home page it was extracted from.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Outcome {
+        private Status status;
+        private String email;
+        private String etag;
+        private String lastModified;
+        private String contentHash;
+
+        public static Outcome found(String email) {
+            return new Outcome(Status.FOUND, email, null, null, null);
+        }
+
+        public static Outcome notFound() {
+            return new Outcome(Status.NOT_FOUND, null, null, null, null);
+        }
+
+        public static Outcome unreachable() {
+            return new Outcome(Status.UNREACHABLE, null, null, null, null);
+        }
+
+        /**
+         * @return A copy of this outcome with the given home page validators
+         */
+        public Outcome withValidators(String etag, String lastModified, String contentHash) {
+            return new Outcome(status, email, etag, lastModified, contentHash);
+        }
+
+        /**
+         * @return Whether the home page can be revalidated against this outcome
+         */
+        public boolean hasValidators() {
+            return status != Status.UNREACHABLE && (etag != null || lastModified != null || contentHash != null);
+        }
+    }
+}
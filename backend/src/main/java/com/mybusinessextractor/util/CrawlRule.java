@@ -0,0 +1,17 @@
+package com.mybusinessextractor.util;
+
+/**
+ * A rule of the {@link CrawlEligibilityClassifier}. Rules are Spring beans and are consulted
+ * in their {@link org.springframework.core.annotation.Order}; the first rule that applies decides.
+ */
+public interface CrawlRule {
+
+    /**
+     * Classifies a website URL.
+     *
+     * @param url The website URL including its scheme
+     * @param host The lower-case host of the URL
+     * @return The decision, or null if the rule does not apply to the URL
+     */
+    CrawlDecision classify(String url, String host);
+}
@@ -0,0 +1,118 @@
+package com.mybusinessextractor.util;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Helpers for the host names of crawled websites.
+ */
+public final class DomainNames {
+
+    // Second-level labels under which domains are registered in country code TLDs, e.g. firma.com.tr
+    private static final Set<String> SECOND_LEVEL_LABELS = Set.of(
+            "com", "net", "org", "gov", "edu", "gen", "biz", "info", "web", "tel", "bel", "pol", "av", "dr",
+            "co", "ac", "or", "ne", "go", "gob", "gv", "ltd", "plc", "me", "nom", "k12", "tv");
+
+    // Hosting platforms whose customers each get a subdomain; the full host identifies the site
+    private static final Set<String> SHARED_HOSTING_SUFFIXES = Set.of(
+            "wixsite.com", "blogspot.com", "wordpress.com", "business.site", "weebly.com",
+            "squarespace.com", "tumblr.com", "github.io", "netlify.app", "vercel.app", "webnode.com",
+            "godaddysites.com", "jimdofree.com", "site123.me", "ueniweb.com", "mystrikingly.com");
+
+    private DomainNames() {
+    }
+
+    /**
+     * Gets the registrable domain of a website, e.g. "firma.com.tr" for "https://www.sube.firma.com.tr/iletisim".
+     * Chains that share one website across their branches map to the same domain. For sites on shared
+     * hosting platforms the full host is returned instead, since every customer is a separate site.
+     * This is a heuristic rather than a full public suffix list.
+     *
+     * @param website The website URL, with or without scheme
+     * @return The lower-case registrable domain, or null if the website has no usable host
+     */
+    public static String registrableDomain(String website) {
+        String host = host(website);
+        if (host == null) {
+            return null;
+        }
+        for (String suffix : SHARED_HOSTING_SUFFIXES) {
+            if (host.endsWith("." + suffix)) {
+                return host.startsWith("www.") ? host.substring(4) : host;
+            }
+        }
+
+        String[] labels = host.split("\\.");
+        if (labels.length <= 2 || isIpAddress(host)) {
+            return host;
+        }
+        String topLevel = labels[labels.length - 1];
+        String secondLevel = labels[labels.length - 2];
+        int keep = topLevel.length() == 2 && SECOND_LEVEL_LABELS.contains(secondLevel) ? 3 : 2;
+        return String.join(".", Arrays.copyOfRange(labels, labels.length - keep, labels.length));
+    }
+
+    /**
+     * Gets the key under which requests to a website are rate limited. Sites on a shared hosting
+     * platform are served by the same infrastructure, so they share the platform domain; other
+     * sites are grouped by registrable domain, which covers chains with several host names.
+     *
+     * @param website The website URL, with or without scheme
+     * @return The lower-case politeness key, or null if the website has no usable host
+     */
+    public static String politenessKey(String website) {
+        String host = host(website);
+        if (host == null) {
+            return null;
+        }
+        for (String suffix : SHARED_HOSTING_SUFFIXES) {
+            if (host.endsWith("." + suffix)) {
+                return suffix;
+            }
+        }
+        return registrableDomain(host);
+    }
+
+    /**
+     * Checks whether a host is the domain or one of its subdomains.
+     *
+     * @param host The lower-case host
+     * @param domain The lower-case domain
+     * @return Whether the host belongs to the domain
+     */
+    public static boolean matchesDomain(String host, String domain) {
+        return host.equals(domain) || host.endsWith("." + domain);
+    }
+
+    /**
+     * Gets the lower-case host of a website.
+     *
+     * @param website The website URL, with or without scheme
+     * @return The host, or null if the website cannot be parsed
+     */
+    public static String host(String website) {
+        if (website == null || website.isBlank()) {
+            return null;
+        }
+        String url = website.trim();
+        if (!url.startsWith("http://") && !url.startsWith("https://")) {
+            url = "https://" + url;
+        }
+        try {
+            String host = URI.create(url).getHost();
+            if (host == null || host.isEmpty()) {
+                return null;
+            }
+            host = host.toLowerCase(Locale.ROOT);
+            return host.endsWith(".") ? host.substring(0, host.length() - 1) : host;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isIpAddress(String host) {
+        return host.chars().allMatch(c -> Character.isDigit(c) || c == '.') || host.contains(":");
+    }
+}
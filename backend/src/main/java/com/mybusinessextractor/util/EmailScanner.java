@@ -0,0 +1,543 @@
+package com.mybusinessextractor.util;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+/**
+ * Streaming scanner that finds the first email address in a web page.
+ * The page is decoded buffer by buffer and scanned in a single pass without backtracking,
+ * so neither the whole page nor a String of it is ever held in memory. Scanning stops at the
+ * first valid address or once the configured number of bytes has been read.
+ * Obfuscated addresses such as "info [at] example [dot] com", HTML entities and
+ * URL-encoded "mailto:" links are recognized as well.
+ * A checksum of the bytes read lets recrawls tell whether a page has changed.
+ */
+@Component
+public class EmailScanner {
+
+    // Longest possible address according to RFC 5321
+    private static final int MAX_ADDRESS_LENGTH = 254;
+    private static final int MAX_LOCAL_PART_LENGTH = 64;
+    private static final int MAX_HREF_LENGTH = 512;
+    private static final int MAX_CONTACT_LINKS = 8;
+    private static final int CHARSET_SNIFF_BYTES = 1024;
+
+    private static final String[] AT_TOKENS = {"&#64;", "&#x40;", "&commat;", "%40", "[at]", "(at)", "{at}"};
+    private static final String[] DOT_TOKENS = {"&#46;", "&#x2e;", "&period;", "[dot]", "(dot)", "{dot}"};
+    private static final int MAX_TOKEN_LENGTH = 8;
+
+    private static final Set<String> IGNORED_DOMAINS = Set.of("example.com", "domain.com", "email.com");
+    private static final Set<String> FILE_EXTENSIONS = Set.of("png", "jpg", "jpeg", "gif", "svg", "webp", "css", "js");
+    private static final String[] CONTACT_KEYWORDS = {
+            "contact", "kontakt", "iletisim", "impressum", "bize-ulasin", "about", "hakkimizda"};
+
+    private final long maxBytes;
+
+    public EmailScanner(@Value("${crawler.scan.max-bytes}") DataSize maxBytes) {
+        this.maxBytes = maxBytes.toBytes();
+    }
+
+    /**
+     * Scans a response body. The body is cancelled as soon as an address has been found
+     * or the byte cap has been reached.
+     *
+     * @param body The response body
+     * @param contentType The content type of the response, used for its charset if present
+     * @return A Mono emitting the scan result
+     */
+    public Mono<Result> scan(Flux<DataBuffer> body, MediaType contentType) {
+        return Mono.defer(() -> {
+            Session session = newSession(contentType != null ? contentType.getCharset() : null);
+            return body
+                    .doOnNext(buffer -> {
+                        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                            while (iterator.hasNext() && !session.isDone()) {
+                                session.feed(iterator.next());
+                            }
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .takeUntil(buffer -> session.isDone())
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .then(Mono.fromSupplier(session::finish));
+        });
+    }
+
+    /**
+     * Starts scanning a new page.
+     *
+     * @param charset The charset declared by the response, or null to detect it from the page
+     * @return The scan session of the page
+     */
+    public Session newSession(Charset charset) {
+        return new Session(charset, maxBytes);
+    }
+
+    /**
+     * The outcome of scanning a page.
+     */
+    @Getter
+    public static class Result {
+        private final String email;
+        private final List<String> contactLinks;
+        private final long bytesRead;
+        // Checksum and length of the bytes read; equal for pages read to the same content
+        private final String contentHash;
+
+        private Result(String email, List<String> contactLinks, long bytesRead, String contentHash) {
+            this.email = email;
+            this.contactLinks = Collections.unmodifiableList(contactLinks);
+            this.bytesRead = bytesRead;
+            this.contentHash = contentHash;
+        }
+    }
+
+    /**
+     * Scan state of a single page. Not thread-safe; buffers must be fed in order.
+     */
+    public static class Session {
+
+        private final long maxBytes;
+        private Charset charset;
+        private CharsetDecoder decoder;
+
+        // Bytes of a character split across two buffers
+        private final ByteBuffer pendingBytes = ByteBuffer.allocate(16);
+        private final CharBuffer chars = CharBuffer.allocate(4096);
+        private long bytesRead;
+        private final CRC32C checksum = new CRC32C();
+
+        // Decoded characters not yet normalized, and normalized characters not yet ruled out
+        private final StringBuilder raw = new StringBuilder();
+        private final StringBuilder text = new StringBuilder();
+        private int scanFrom;
+        private boolean skipWhitespace;
+
+        // Matching state of href attributes
+        private int hrefMatched;
+        private char hrefQuote;
+        private boolean inHref;
+        private final StringBuilder href = new StringBuilder();
+        private final List<String> contactLinks = new ArrayList<>();
+
+        private String email;
+        private boolean capped;
+
+        private Session(Charset charset, long maxBytes) {
+            this.charset = charset;
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * @return Whether an address has been found or the byte cap has been reached
+         */
+        public boolean isDone() {
+            return email != null || capped;
+        }
+
+        /**
+         * Feeds the next bytes of the page.
+         *
+         * @param buffer The bytes; they are consumed up to the byte cap
+         */
+        public void feed(ByteBuffer buffer) {
+            if (isDone()) {
+                return;
+            }
+            if (decoder == null) {
+                startDecoder(buffer);
+            }
+
+            ByteBuffer input = buffer;
+            long remainingBytes = maxBytes - bytesRead;
+            if (input.remaining() > remainingBytes) {
+                input = input.slice().limit((int) remainingBytes);
+                capped = true;
+            }
+            bytesRead += input.remaining();
+            checksum.update(input.duplicate());
+
+            // Complete a character left over from the previous buffer first
+            while (pendingBytes.position() > 0 && input.hasRemaining() && email == null) {
+                pendingBytes.put(input.get());
+                pendingBytes.flip();
+                decode(pendingBytes, false);
+                pendingBytes.compact();
+            }
+            if (email == null) {
+                decode(input, false);
+                if (input.hasRemaining() && email == null) {
+                    pendingBytes.put(input);
+                }
+            }
+            if (capped) {
+                finishDecoding();
+            }
+        }
+
+        /**
+         * Ends the page and returns the result.
+         *
+         * @return The scan result
+         */
+        public Result finish() {
+            if (!isDone() && decoder != null) {
+                finishDecoding();
+            }
+            return new Result(email, contactLinks, bytesRead, Long.toHexString(checksum.getValue()) + "-" + bytesRead);
+        }
+
+        private void finishDecoding() {
+            pendingBytes.flip();
+            decode(pendingBytes, true);
+            pendingBytes.clear();
+            if (email == null) {
+                decoder.flush(chars);
+                chars.flip();
+                consume(chars, true);
+                chars.clear();
+            }
+        }
+
+        /**
+         * Uses the declared charset, or a charset declared by a meta tag near the start of the page,
+         * falling back to UTF-8.
+         */
+        private void startDecoder(ByteBuffer firstBuffer) {
+            if (charset == null) {
+                charset = sniffCharset(firstBuffer);
+            }
+            decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        private static Charset sniffCharset(ByteBuffer buffer) {
+            int length = Math.min(buffer.remaining(), CHARSET_SNIFF_BYTES);
+            byte[] head = new byte[length];
+            buffer.duplicate().get(head);
+            String prefix = new String(head, StandardCharsets.ISO_8859_1).toLowerCase(Locale.ROOT);
+
+            int index = prefix.indexOf("charset=");
+            if (index < 0) {
+                return StandardCharsets.UTF_8;
+            }
+            int start = index + "charset=".length();
+            while (start < prefix.length() && (prefix.charAt(start) == '"' || prefix.charAt(start) == '\'')) {
+                start++;
+            }
+            int end = start;
+            while (end < prefix.length() && isCharsetNameChar(prefix.charAt(end))) {
+                end++;
+            }
+            try {
+                return Charset.forName(prefix.substring(start, end));
+            } catch (IllegalArgumentException e) {
+                return StandardCharsets.UTF_8;
+            }
+        }
+
+        private void decode(ByteBuffer input, boolean endOfInput) {
+            while (email == null) {
+                CoderResult result = decoder.decode(input, chars, endOfInput);
+                chars.flip();
+                consume(chars, endOfInput && result.isUnderflow());
+                chars.clear();
+                if (!result.isOverflow()) {
+                    return;
+                }
+            }
+        }
+
+        private void consume(CharBuffer decoded, boolean endOfInput) {
+            while (decoded.hasRemaining()) {
+                char c = decoded.get();
+                raw.append(c);
+                trackHref(c);
+            }
+            normalize(endOfInput);
+            scan(endOfInput);
+            compact();
+        }
+
+        /**
+         * Moves characters from raw to text, replacing obfuscated "@" and "." tokens.
+         * A token prefix at the end of raw is kept until the next characters arrive.
+         */
+        private void normalize(boolean endOfInput) {
+            int position = 0;
+            int length = raw.length();
+            while (position < length) {
+                char c = raw.charAt(position);
+                if (c == '&' || c == '%' || c == '[' || c == '(' || c == '{') {
+                    if (!endOfInput && length - position < MAX_TOKEN_LENGTH && couldStartToken(position)) {
+                        break;
+                    }
+                    int atToken = matchToken(position, AT_TOKENS);
+                    if (atToken > 0) {
+                        appendSeparator('@', c != '&' && c != '%');
+                        position += atToken;
+                        continue;
+                    }
+                    int dotToken = matchToken(position, DOT_TOKENS);
+                    if (dotToken > 0) {
+                        appendSeparator('.', c != '&');
+                        position += dotToken;
+                        continue;
+                    }
+                }
+                if (skipWhitespace && Character.isWhitespace(c)) {
+                    position++;
+                    continue;
+                }
+                skipWhitespace = false;
+                text.append(c);
+                position++;
+            }
+            raw.delete(0, position);
+        }
+
+        /**
+         * Appends a de-obfuscated separator. Bracketed tokens are usually surrounded by spaces,
+         * which are removed on both sides.
+         */
+        private void appendSeparator(char separator, boolean bracketed) {
+            if (bracketed) {
+                int end = text.length();
+                while (end > 0 && text.charAt(end - 1) == ' ') {
+                    end--;
+                }
+                text.setLength(end);
+                scanFrom = Math.min(scanFrom, end);
+            }
+            text.append(separator);
+            skipWhitespace = bracketed;
+        }
+
+        private boolean couldStartToken(int position) {
+            return isTokenPrefix(position, AT_TOKENS) || isTokenPrefix(position, DOT_TOKENS);
+        }
+
+        private boolean isTokenPrefix(int position, String[] tokens) {
+            int available = raw.length() - position;
+            for (String token : tokens) {
+                if (available < token.length() && startsWithIgnoreCase(raw, position, token.substring(0, available))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int matchToken(int position, String[] tokens) {
+            for (String token : tokens) {
+                if (startsWithIgnoreCase(raw, position, token)) {
+                    return token.length();
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Checks every "@" in the normalized text for a valid address. An address whose domain
+         * reaches the end of the text is checked again once more characters have arrived.
+         */
+        private void scan(boolean endOfInput) {
+            int length = text.length();
+            int at = text.indexOf("@", scanFrom);
+            while (at >= 0) {
+                int domainEnd = at + 1;
+                while (domainEnd < length && isDomainChar(text.charAt(domainEnd))) {
+                    domainEnd++;
+                }
+                if (isPendingEnd(domainEnd) && !endOfInput) {
+                    scanFrom = at;
+                    return;
+                }
+                String candidate = validAddress(at, domainEnd);
+                if (candidate != null) {
+                    email = candidate;
+                    return;
+                }
+                at = text.indexOf("@", at + 1);
+            }
+            scanFrom = length;
+        }
+
+        /**
+         * Whether only spaces follow the position; a bracketed "[dot]" may still come.
+         */
+        private boolean isPendingEnd(int position) {
+            while (position < text.length() && text.charAt(position) == ' ') {
+                position++;
+            }
+            return position == text.length();
+        }
+
+        private String validAddress(int at, int domainEnd) {
+            int localStart = at;
+            while (localStart > 0 && isLocalChar(text.charAt(localStart - 1))) {
+                localStart--;
+            }
+            while (localStart < at && text.charAt(localStart) == '.') {
+                localStart++;
+            }
+            if (at - localStart > MAX_LOCAL_PART_LENGTH) {
+                return null;
+            }
+            while (domainEnd > at + 1 && (text.charAt(domainEnd - 1) == '.' || text.charAt(domainEnd - 1) == '-')) {
+                domainEnd--;
+            }
+            if (localStart == at || domainEnd - localStart >= 100) {
+                return null;
+            }
+
+            String domain = text.substring(at + 1, domainEnd);
+            int lastDot = domain.lastIndexOf('.');
+            if (lastDot <= 0 || domain.contains("..") || domain.startsWith(".") || domain.startsWith("-")) {
+                return null;
+            }
+            String tld = domain.substring(lastDot + 1);
+            if (tld.length() < 2 || tld.length() > 24 || !tld.chars().allMatch(Character::isLetter)) {
+                return null;
+            }
+            String lowerDomain = domain.toLowerCase(Locale.ROOT);
+            if (FILE_EXTENSIONS.contains(tld.toLowerCase(Locale.ROOT))
+                    || IGNORED_DOMAINS.stream().anyMatch(lowerDomain::endsWith)) {
+                return null;
+            }
+            return text.substring(localStart, at) + "@" + domain;
+        }
+
+        /**
+         * Drops normalized text that can no longer be part of an address.
+         * Trailing spaces are kept since they may precede a bracketed "[at]" or "[dot]".
+         */
+        private void compact() {
+            int keepFrom = text.length();
+            while (keepFrom > 0 && text.length() - keepFrom < MAX_ADDRESS_LENGTH && text.charAt(keepFrom - 1) == ' ') {
+                keepFrom--;
+            }
+            while (keepFrom > 0 && text.length() - keepFrom < MAX_ADDRESS_LENGTH
+                    && isAddressChar(text.charAt(keepFrom - 1))) {
+                keepFrom--;
+            }
+            text.delete(0, keepFrom);
+            scanFrom = Math.max(0, scanFrom - keepFrom);
+        }
+
+        /**
+         * Collects the values of href attributes that point to a contact or about page.
+         */
+        private void trackHref(char c) {
+            if (inHref) {
+                if (c == hrefQuote || href.length() >= MAX_HREF_LENGTH) {
+                    addContactLink();
+                    inHref = false;
+                    hrefMatched = 0;
+                } else {
+                    href.append(c);
+                }
+                return;
+            }
+            if (hrefMatched < 4) {
+                char lower = Character.toLowerCase(c);
+                if (lower == "href".charAt(hrefMatched)) {
+                    hrefMatched++;
+                } else {
+                    hrefMatched = lower == 'h' ? 1 : 0;
+                }
+            } else if (hrefMatched == 4) {
+                if (c == '=') {
+                    hrefMatched = 5;
+                } else if (!Character.isWhitespace(c)) {
+                    hrefMatched = Character.toLowerCase(c) == 'h' ? 1 : 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                hrefQuote = c;
+                inHref = true;
+                href.setLength(0);
+            } else if (!Character.isWhitespace(c)) {
+                // Unquoted values are not collected
+                hrefMatched = 0;
+            }
+        }
+
+        private void addContactLink() {
+            if (contactLinks.size() >= MAX_CONTACT_LINKS || startsWithIgnoreCase(href, 0, "mailto:")) {
+                return;
+            }
+            for (String keyword : CONTACT_KEYWORDS) {
+                if (containsIgnoreCase(href, keyword)) {
+                    String link = href.toString();
+                    if (!contactLinks.contains(link)) {
+                        contactLinks.add(link);
+                    }
+                    return;
+                }
+            }
+        }
+
+        private static boolean containsIgnoreCase(CharSequence value, String lowerCaseKeyword) {
+            for (int i = 0; i + lowerCaseKeyword.length() <= value.length(); i++) {
+                if (startsWithIgnoreCase(value, i, lowerCaseKeyword)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean startsWithIgnoreCase(CharSequence value, int offset, String lowerCaseKeyword) {
+            if (value.length() - offset < lowerCaseKeyword.length()) {
+                return false;
+            }
+            for (int i = 0; i < lowerCaseKeyword.length(); i++) {
+                if (Character.toLowerCase(value.charAt(offset + i)) != lowerCaseKeyword.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isLocalChar(char c) {
+            return isAsciiLetterOrDigit(c) || c == '.' || c == '_' || c == '+' || c == '-';
+        }
+
+        private static boolean isDomainChar(char c) {
+            return isAsciiLetterOrDigit(c) || c == '.' || c == '-';
+        }
+
+        private static boolean isAddressChar(char c) {
+            return isLocalChar(c) || c == '@';
+        }
+
+        private static boolean isAsciiLetterOrDigit(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+        }
+
+        private static boolean isCharsetNameChar(char c) {
+            return isAsciiLetterOrDigit(c) || c == '-' || c == '_' || c == '.' || c == ':';
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.mybusinessextractor.util;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+
+/**
+ * Skips Google Maps URLs. Places without a website fall back to their Maps URL, and the
+ * Maps page is rendered by scripts, so it never contains the business's email address.
+ */
+@Component
+@Order(1)
+public class GoogleMapsCrawlRule implements CrawlRule {
+
+    @Override
+    public CrawlDecision classify(String url, String host) {
+        if (host.startsWith("maps.google.") || DomainNames.matchesDomain(host, "maps.app.goo.gl")) {
+            return CrawlDecision.skip("google-maps");
+        }
+        String domain = DomainNames.registrableDomain(host);
+        if ((domain.startsWith("google.") || domain.equals("goo.gl")) && path(url).startsWith("/maps")) {
+            return CrawlDecision.skip("google-maps");
+        }
+        return null;
+    }
+
+    private static String path(String url) {
+        try {
+            String path = URI.create(url).getPath();
+            return path != null ? path : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.mybusinessextractor.util;
+
+import com.mybusinessextractor.service.StatsProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Hedging for Place Details requests to cut their latency tail.
+ * If a request has not answered after the configured latency percentile of recent requests,
+ * an identical second request is sent; the first successful answer wins and the other request is
+ * cancelled. A failure only ends the request once both have failed, or if no hedge is sent.
+ * Every request earns a fraction of a hedge, so hedges never exceed the configured ratio of requests.
+ */
+@Slf4j
+@Component
+public class HedgingPolicy implements StatsProvider {
+
+    private static final int SAMPLE_SIZE = 1024;
+    private static final int RECOMPUTE_EVERY = 64;
+    private static final double MAX_BUDGET = 10;
+
+    @Value("${places.hedging.enabled}")
+    private boolean enabled;
+
+    @Value("${places.hedging.percentile}")
+    private double percentile;
+
+    @Value("${places.hedging.min-delay}")
+    private Duration minDelay;
+
+    @Value("${places.hedging.max-delay}")
+    private Duration maxDelay;
+
+    @Value("${places.hedging.max-ratio}")
+    private double maxRatio;
+
+    @Value("${places.hedging.min-samples}")
+    private int minSamples;
+
+    // Ring buffer of recent latencies in nanoseconds
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private long sampleCount;
+    private long hedgeDelayNanos = -1;
+    private double budget;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    /**
+     * Records the latency of a completed request.
+     *
+     * @param latencyNanos The time from sending the request to the end of the response
+     */
+    public synchronized void recordLatency(long latencyNanos) {
+        samples[(int) (sampleCount % SAMPLE_SIZE)] = latencyNanos;
+        sampleCount++;
+        if (sampleCount >= minSamples && (hedgeDelayNanos < 0 || sampleCount % RECOMPUTE_EVERY == 0)) {
+            int size = (int) Math.min(sampleCount, SAMPLE_SIZE);
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.min(size - 1, Math.ceil(percentile / 100 * size) - 1);
+            hedgeDelayNanos = Math.max(minDelay.toNanos(), Math.min(maxDelay.toNanos(), sorted[Math.max(0, index)]));
+        }
+    }
+
+    /**
+     * Wraps a request with hedging if hedging is enabled.
+     * The request must be safe to subscribe to twice. Its latency should be recorded from the
+     * moment it is sent, so the hedge delay is measured against the same clock.
+     *
+     * @param request The request to hedge
+     * @param permit Asked once the hedge delay has passed; the hedge is skipped if it returns false,
+     *               e.g. when no rate limiter token is available right away
+     * @return A Mono emitting the first successful answer of the request or its hedge,
+     *         or the first error if neither succeeds
+     */
+    public <T> Mono<T> hedge(Mono<T> request, BooleanSupplier permit) {
+        if (!enabled) {
+            return request;
+        }
+        return Mono.defer(() -> {
+            Duration delay = earnBudgetAndGetDelay();
+            if (delay == null) {
+                return request;
+            }
+            // Errors are held back so a fast failure of one request does not cancel the other
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            Mono<T> hedged = Mono.delay(delay)
+                    .flatMap(tick -> {
+                        if (!tryConsumeBudget()) {
+                            return Mono.empty();
+                        }
+                        if (!permit.getAsBoolean()) {
+                            refundBudget();
+                            return Mono.empty();
+                        }
+                        hedges.incrementAndGet();
+                        log.debug("Request exceeded {} ms, sending hedged request", delay.toMillis());
+                        return request.doOnNext(value -> hedgeWins.incrementAndGet());
+                    });
+            return Mono.firstWithValue(holdError(request, error), holdError(hedged, error))
+                    .onErrorResume(e -> error.get() != null ? Mono.error(error.get()) : Mono.empty());
+        });
+    }
+
+    private static <T> Mono<T> holdError(Mono<T> request, AtomicReference<Throwable> error) {
+        return request.onErrorResume(e -> {
+            error.compareAndSet(null, e);
+            return Mono.empty();
+        });
+    }
+
+    @Override
+    public String getStatsName() {
+        return "placeDetailsHedging";
+    }
+
+    @Override
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("hedgeDelayMs", hedgeDelayNanos < 0 ? null : Duration.ofNanos(hedgeDelayNanos).toMillis());
+        stats.put("requests", requests.get());
+        stats.put("hedges", hedges.get());
+        stats.put("hedgeWins", hedgeWins.get());
+        return stats;
+    }
+
+    private synchronized Duration earnBudgetAndGetDelay() {
+        requests.incrementAndGet();
+        budget = Math.min(MAX_BUDGET, budget + maxRatio);
+        // Without enough samples the percentile is meaningless, so nothing is hedged yet
+        return hedgeDelayNanos < 0 ? null : Duration.ofNanos(hedgeDelayNanos);
+    }
+
+    private synchronized void refundBudget() {
+        budget = Math.min(MAX_BUDGET, budget + 1);
+    }
+
+    private synchronized boolean tryConsumeBudget() {
+        if (budget < 1) {
+            return false;
+        }
+        budget -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,178 @@
+package com.mybusinessextractor.util;
+
+import com.mybusinessextractor.service.StatsProvider;
+import io.netty.handler.timeout.ReadTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-host circuit breaker for website fetches.
+ * After a number of consecutive connect, DNS or read timeout failures the circuit of a host opens and
+ * fetches to it fail immediately instead of waiting for another connect timeout. Once the open
+ * duration has passed a single probe fetch is let through; it closes the circuit on success and
+ * opens it again on failure. Any HTTP response, including error statuses, counts as success.
+ */
+@Slf4j
+@Component
+public class HostCircuitBreaker implements StatsProvider {
+
+    private static final int MAX_HOSTS = 10_000;
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    // Only hosts with recent failures are tracked; the least recently used are dropped first
+    private final Map<String, Circuit> circuits = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Circuit> eldest) {
+            return size() > MAX_HOSTS;
+        }
+    };
+
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public HostCircuitBreaker(@Value("${crawler.circuit-breaker.failure-threshold}") int failureThreshold,
+                              @Value("${crawler.circuit-breaker.open-duration}") Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+    }
+
+    /**
+     * Runs a fetch unless the circuit of its host is open.
+     *
+     * @param host The host the fetch is sent to
+     * @param fetch The fetch
+     * @return The fetch, or a Mono failing with {@link OpenCircuitException} if the circuit is open
+     */
+    public <T> Mono<T> protect(String host, Mono<T> fetch) {
+        return Mono.defer(() -> {
+            Boolean probe = tryAcquire(host);
+            if (probe == null) {
+                rejected.incrementAndGet();
+                return Mono.error(new OpenCircuitException(host));
+            }
+            return fetch
+                    .doOnSuccess(value -> onSuccess(host))
+                    .doOnError(e -> {
+                        if (isConnectivityFailure(e)) {
+                            onFailure(host, probe);
+                        } else {
+                            onSuccess(host);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (probe) {
+                            onProbeCancelled(host);
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Checks whether an error means the host could not be reached at all.
+     *
+     * @param error The error of a fetch
+     * Timeouts of the whole page and of the connection pool are not counted: the first means
+     * the host answered slowly, the second that this application ran out of connections.
+     *
+     * @return Whether the error or one of its causes is a connect, DNS or read timeout failure
+     */
+    public static boolean isConnectivityFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException
+                    || cause instanceof UnknownHostException
+                    || cause instanceof NoRouteToHostException
+                    || cause instanceof ReadTimeoutException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "crawlCircuitBreaker";
+    }
+
+    @Override
+    public synchronized Map<String, Object> getStats() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedHosts", circuits.size());
+        stats.put("openCircuits", circuits.values().stream().filter(circuit -> circuit.openUntil > now).count());
+        stats.put("opened", opened.get());
+        stats.put("rejected", rejected.get());
+        return stats;
+    }
+
+    /**
+     * @return null if the fetch must be rejected, true if it is the probe of a half-open circuit,
+     *         false if the circuit is closed
+     */
+    private synchronized Boolean tryAcquire(String host) {
+        Circuit circuit = circuits.get(host);
+        if (circuit == null || circuit.openUntil == 0) {
+            return false;
+        }
+        if (circuit.openUntil > System.currentTimeMillis() || circuit.probing) {
+            return null;
+        }
+        circuit.probing = true;
+        return true;
+    }
+
+    private synchronized void onSuccess(String host) {
+        circuits.remove(host);
+    }
+
+    private synchronized void onFailure(String host, boolean probe) {
+        Circuit circuit = circuits.computeIfAbsent(host, key -> new Circuit());
+        circuit.consecutiveFailures++;
+        circuit.probing = false;
+        if (probe || (circuit.openUntil == 0 && circuit.consecutiveFailures >= failureThreshold)) {
+            circuit.openUntil = System.currentTimeMillis() + openMillis;
+            opened.incrementAndGet();
+            log.info("Opened circuit for host {} after {} consecutive failures", host, circuit.consecutiveFailures);
+        }
+    }
+
+    private synchronized void onProbeCancelled(String host) {
+        Circuit circuit = circuits.get(host);
+        if (circuit != null) {
+            circuit.probing = false;
+        }
+    }
+
+    /**
+     * Failure state of one host.
+     */
+    private static final class Circuit {
+        private int consecutiveFailures;
+        // 0 while closed
+        private long openUntil;
+        private boolean probing;
+    }
+
+    /**
+     * Signals a fetch rejected because the circuit of its host is open.
+     */
+    public static class OpenCircuitException extends RuntimeException {
+        public OpenCircuitException(String host) {
+            super("Circuit open for host " + host, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.mybusinessextractor.util;
+
+import com.mybusinessextractor.dto.JobPriority;
+import com.mybusinessextractor.service.StatsProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Politeness scheduler for website fetches.
+ * Every host has its own queue with a maximum number of concurrent fetches and a minimum interval
+ * between the starts of two fetches. Free fetch slots are handed out round-robin across the hosts
+ * with waiting fetches, so a slow or throttling host only ever delays its own fetches.
+ * Fetches are queued by the {@link JobPriority} of the job they crawl for, and the priorities share
+ * the slots in proportion to their weights, so crawls of interactive jobs are not stuck behind bulk jobs.
+ */
+@Slf4j
+@Component
+public class HostCrawlScheduler implements StatsProvider {
+
+    private static final int PURGE_THRESHOLD = 1024;
+
+    private final int maxConcurrency;
+    private final int maxConcurrencyPerHost;
+    private final long minIntervalNanos;
+
+    private final Map<String, HostQueue> hosts = new HashMap<>();
+    // Hosts with waiting fetches of each priority, in round-robin order
+    private final Map<JobPriority, ArrayDeque<HostQueue>> rotations = new EnumMap<>(JobPriority.class);
+    private final WeightedFairShare<JobPriority> fairShare = new WeightedFairShare<>();
+    private int active;
+    private int queued;
+    private Disposable wakeUp;
+
+    public HostCrawlScheduler(@Value("${crawler.workers}") int maxConcurrency,
+                              @Value("${crawler.politeness.max-concurrency-per-host}") int maxConcurrencyPerHost,
+                              @Value("${crawler.politeness.min-interval}") Duration minInterval) {
+        this.maxConcurrency = maxConcurrency;
+        this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+        this.minIntervalNanos = minInterval.toNanos();
+        for (JobPriority priority : JobPriority.values()) {
+            rotations.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Runs a fetch once the host has a free slot. Time spent waiting in the host queue does not
+     * count towards timeouts applied inside the fetch. The fetch is queued with the
+     * {@link JobPriority} found in the subscriber context.
+     *
+     * @param host The host, or the key of the site group, the fetch is sent to
+     * @param fetch The fetch, subscribed to when it is its turn
+     * @return A Mono emitting the result of the fetch
+     */
+    public <T> Mono<T> schedule(String host, Mono<T> fetch) {
+        return Mono.create(sink -> {
+            Task<T> task = new Task<>(fetch, sink, JobPriority.from(sink.contextView()));
+            synchronized (this) {
+                HostQueue hostQueue = hosts.computeIfAbsent(host, HostQueue::new);
+                task.hostQueue = hostQueue;
+                ArrayDeque<Task<?>> waiting = hostQueue.waiting(task.priority);
+                if (waiting.isEmpty()) {
+                    ArrayDeque<HostQueue> rotation = rotations.get(task.priority);
+                    if (rotation.isEmpty()) {
+                        fairShare.activate(task.priority);
+                    }
+                    rotation.addLast(hostQueue);
+                }
+                waiting.addLast(task);
+                queued++;
+            }
+            sink.onDispose(task::cancel);
+            dispatch();
+        });
+    }
+
+    @Override
+    public String getStatsName() {
+        return "crawlPoliteness";
+    }
+
+    @Override
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxConcurrency", maxConcurrency);
+        stats.put("maxConcurrencyPerHost", maxConcurrencyPerHost);
+        stats.put("minIntervalMs", TimeUnit.NANOSECONDS.toMillis(minIntervalNanos));
+        stats.put("active", active);
+        stats.put("queued", queued);
+        Map<String, Integer> queuedByPriority = new LinkedHashMap<>();
+        rotations.forEach((priority, rotation) -> queuedByPriority.put(priority.name(),
+                rotation.stream().mapToInt(hostQueue -> hostQueue.waiting(priority).size()).sum()));
+        stats.put("queuedByPriority", queuedByPriority);
+        stats.put("hostsWaiting", hosts.values().stream().filter(hostQueue -> hostQueue.waitingCount() > 0).count());
+        Map<String, Integer> busiest = new LinkedHashMap<>();
+        hosts.values().stream()
+                .filter(hostQueue -> hostQueue.waitingCount() > 0)
+                .sorted(Comparator.comparingInt(HostQueue::waitingCount).reversed())
+                .limit(5)
+                .forEach(hostQueue -> busiest.put(hostQueue.host, hostQueue.waitingCount()));
+        stats.put("busiestHosts", busiest);
+        return stats;
+    }
+
+    /**
+     * Starts as many waiting fetches as the global and per-host limits allow, each time serving
+     * the priority furthest behind its weighted share that has a host ready to fetch. If hosts are
+     * only held back by their minimum interval, a wake-up is scheduled for the earliest of them.
+     */
+    private void dispatch() {
+        List<Task<?>> toStart = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            long earliestWakeUp = Long.MAX_VALUE;
+            // Priorities whose hosts are all held back by their limits
+            EnumSet<JobPriority> blocked = EnumSet.noneOf(JobPriority.class);
+            while (active < maxConcurrency) {
+                JobPriority priority = fairShare.pick(() -> rotations.entrySet().stream()
+                        .filter(entry -> !entry.getValue().isEmpty() && !blocked.contains(entry.getKey()))
+                        .map(Map.Entry::getKey)
+                        .iterator());
+                if (priority == null) {
+                    break;
+                }
+
+                ArrayDeque<HostQueue> rotation = rotations.get(priority);
+                HostQueue hostQueue = null;
+                for (int i = rotation.size(); i > 0 && hostQueue == null; i--) {
+                    HostQueue candidate = rotation.pollFirst();
+                    if (candidate.active >= maxConcurrencyPerHost) {
+                        rotation.addLast(candidate);
+                    } else if (candidate.nextStart - now > 0) {
+                        earliestWakeUp = Math.min(earliestWakeUp, candidate.nextStart - now);
+                        rotation.addLast(candidate);
+                    } else {
+                        hostQueue = candidate;
+                    }
+                }
+                if (hostQueue == null) {
+                    blocked.add(priority);
+                    continue;
+                }
+
+                ArrayDeque<Task<?>> waiting = hostQueue.waiting(priority);
+                Task<?> task = waiting.pollFirst();
+                queued--;
+                hostQueue.active++;
+                hostQueue.nextStart = now + minIntervalNanos;
+                active++;
+                fairShare.charge(priority, priority.getWeight());
+                task.started = true;
+                toStart.add(task);
+                if (!waiting.isEmpty()) {
+                    rotation.addLast(hostQueue);
+                }
+            }
+            if (earliestWakeUp != Long.MAX_VALUE && active < maxConcurrency && wakeUp == null) {
+                wakeUp = Schedulers.parallel().schedule(() -> {
+                    synchronized (this) {
+                        wakeUp = null;
+                    }
+                    dispatch();
+                }, earliestWakeUp, TimeUnit.NANOSECONDS);
+            }
+        }
+        toStart.forEach(Task::start);
+    }
+
+    private void release(HostQueue hostQueue) {
+        synchronized (this) {
+            hostQueue.active--;
+            active--;
+            if (hosts.size() > PURGE_THRESHOLD) {
+                purgeIdleHosts();
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Drops idle hosts whose minimum interval has passed; they are recreated on their next fetch.
+     */
+    private void purgeIdleHosts() {
+        long now = System.nanoTime();
+        Iterator<HostQueue> iterator = hosts.values().iterator();
+        while (iterator.hasNext()) {
+            HostQueue hostQueue = iterator.next();
+            if (hostQueue.active == 0 && hostQueue.waitingCount() == 0 && hostQueue.nextStart - now <= 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Fetch queues and counters of one host.
+     */
+    private static final class HostQueue {
+        private final String host;
+        private final Map<JobPriority, ArrayDeque<Task<?>>> waiting = new EnumMap<>(JobPriority.class);
+        private int active;
+        private long nextStart = System.nanoTime();
+
+        private HostQueue(String host) {
+            this.host = host;
+        }
+
+        private ArrayDeque<Task<?>> waiting(JobPriority priority) {
+            return waiting.computeIfAbsent(priority, key -> new ArrayDeque<>());
+        }
+
+        private int waitingCount() {
+            return waiting.values().stream().mapToInt(ArrayDeque::size).sum();
+        }
+    }
+
+    /**
+     * A scheduled fetch and the subscriber waiting for its result.
+     */
+    private final class Task<T> {
+        private final Mono<T> fetch;
+        private final MonoSink<T> sink;
+        private final JobPriority priority;
+        private HostQueue hostQueue;
+        private boolean started;
+        private boolean cancelled;
+        private Disposable running;
+
+        private Task(Mono<T> fetch, MonoSink<T> sink, JobPriority priority) {
+            this.fetch = fetch;
+            this.sink = sink;
+            this.priority = priority;
+        }
+
+        private void start() {
+            Disposable disposable = fetch
+                    .doFinally(signal -> release(hostQueue))
+                    .contextWrite(sink.contextView())
+                    .subscribe(sink::success, sink::error, sink::success);
+            synchronized (HostCrawlScheduler.this) {
+                if (!cancelled) {
+                    running = disposable;
+                    return;
+                }
+            }
+            disposable.dispose();
+        }
+
+        private void cancel() {
+            Disposable toDispose;
+            synchronized (HostCrawlScheduler.this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                if (!started) {
+                    ArrayDeque<Task<?>> waiting = hostQueue.waiting(priority);
+                    if (waiting.remove(this)) {
+                        queued--;
+                        if (waiting.isEmpty()) {
+                            rotations.get(priority).remove(hostQueue);
+                        }
+                    }
+                    return;
+                }
+                toDispose = running;
+            }
+            if (toDispose != null) {
+                toDispose.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.mybusinessextractor.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybusinessextractor.dto.JobPriority;
+import com.mybusinessextractor.dto.TaskStatus;
+import com.mybusinessextractor.model.Business;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of search jobs, one JSON-lines file per job.
+ * The file records the job with its tasks when it starts, every enriched business, every
+ * backfilled email and every task that completes or fails. Jobs that were interrupted by a
+ * restart are rebuilt from their files; the file of a job is deleted once the job has finished.
+ * A line cut short by a crash is skipped when the journal is read back.
+ * Records are written in order by a single writer thread, so callers on the event loop never
+ * wait for the file; the pending records are written before the application shuts down.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobJournal {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${extractor.journal.directory}")
+    private String directory;
+
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+    // Only used on the writer thread
+    private final Map<String, BufferedWriter> writers = new HashMap<>();
+    private final ExecutorService writerThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "job-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Records the start of a job and its tasks.
+     *
+     * @param jobId The job ID
+     * @param priority The job priority
+     * @param saveToDatabase Whether the job saves its results to the database
+     * @param maxConcurrentTasks The task limit requested for the job, or 0 for the default
+     * @param tasks The tasks of the job
+     */
+    public void jobStarted(String jobId, JobPriority priority, boolean saveToDatabase, int maxConcurrentTasks,
+                           List<TaskStatus> tasks) {
+        append(jobId, Record.builder()
+                .type(RecordType.JOB_STARTED)
+                .priority(priority)
+                .saveToDatabase(saveToDatabase)
+                .maxConcurrentTasks(maxConcurrentTasks)
+                .tasks(tasks)
+                .build());
+    }
+
+    /**
+     * Records an enriched business of a task.
+     *
+     * @param persisted Whether the business was saved to the database
+     */
+    public void businessFound(String jobId, String taskId, Business business, boolean persisted) {
+        append(jobId, Record.builder().type(RecordType.BUSINESS).taskId(taskId).business(business)
+                .persisted(persisted).build());
+    }
+
+    /**
+     * Records an email backfilled by the crawler into the business of a task.
+     */
+    public void emailFound(String jobId, String taskId, String businessId, String email) {
+        append(jobId, Record.builder().type(RecordType.EMAIL).taskId(taskId).businessId(businessId).email(email).build());
+    }
+
+    /**
+     * Records that a task has completed or failed; it is not run again on resume.
+     */
+    public void taskFinished(String jobId, String taskId, String status, String message) {
+        append(jobId, Record.builder().type(RecordType.TASK_FINISHED).taskId(taskId).status(status).message(message).build());
+    }
+
+    /**
+     * Deletes the journal of a finished job once its pending records have been written.
+     *
+     * @param jobId The job ID
+     */
+    public void jobFinished(String jobId) {
+        submit(jobId, () -> {
+            BufferedWriter writer = writers.remove(jobId);
+            try {
+                if (writer != null) {
+                    writer.close();
+                }
+                Files.deleteIfExists(file(jobId));
+            } catch (IOException e) {
+                log.warn("Could not delete the journal of job {}", jobId, e);
+            }
+        });
+    }
+
+    /**
+     * Reads the journals of all jobs that have not finished.
+     *
+     * @return The records of each job, in the order they were written
+     */
+    public Map<String, List<Record>> readUnfinishedJobs() {
+        Map<String, List<Record>> jobs = new HashMap<>();
+        Path dir = Paths.get(directory);
+        if (!Files.isDirectory(dir)) {
+            return jobs;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(path -> path.getFileName().toString().endsWith(".jsonl")).forEach(path -> {
+                String jobId = path.getFileName().toString().replaceFirst("\\.jsonl$", "");
+                List<Record> records = read(path);
+                if (!records.isEmpty() && records.get(0).getType() == RecordType.JOB_STARTED) {
+                    jobs.put(jobId, records);
+                } else {
+                    log.warn("Ignoring journal without a job start record: {}", path);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Could not list the job journals in {}", dir, e);
+        }
+        return jobs;
+    }
+
+    /**
+     * Writes the pending records and closes the journal files.
+     */
+    @PreDestroy
+    void close() throws InterruptedException {
+        try {
+            writerThread.execute(() -> {
+                writers.forEach((jobId, writer) -> {
+                    try {
+                        writer.close();
+                    } catch (IOException e) {
+                        log.warn("Could not close the journal of job {}", jobId, e);
+                    }
+                });
+                writers.clear();
+            });
+        } catch (RejectedExecutionException e) {
+            return;
+        }
+        writerThread.shutdown();
+        if (!writerThread.awaitTermination(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Journal records still pending after {}", CLOSE_TIMEOUT);
+        }
+    }
+
+    private List<Record> read(Path path) {
+        List<Record> records = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    records.add(objectMapper.readValue(line, Record.class));
+                } catch (JsonProcessingException e) {
+                    log.warn("Skipping unreadable line in journal {}", path);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read journal {}", path, e);
+        }
+        return records;
+    }
+
+    /**
+     * Queues one record to be written as a line and flushed to the file, so it survives a restart
+     * of the process. The record is serialized right away, as later changes to the business it
+     * holds are journaled by their own records.
+     */
+    private void append(String jobId, Record record) {
+        record.setTime(System.currentTimeMillis());
+        String line;
+        try {
+            line = objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not write {} record to the journal of job {}", record.getType(), jobId, e);
+            return;
+        }
+        submit(jobId, () -> {
+            try {
+                BufferedWriter writer = writers.computeIfAbsent(jobId, this::open);
+                writer.write(line);
+                writer.newLine();
+                writer.flush();
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Could not write {} record to the journal of job {}", record.getType(), jobId, e);
+            }
+        });
+    }
+
+    private void submit(String jobId, Runnable write) {
+        try {
+            writerThread.execute(write);
+        } catch (RejectedExecutionException e) {
+            log.warn("Journal of job {} is closed, dropping a record", jobId);
+        }
+    }
+
+    private BufferedWriter open(String jobId) {
+        Path file = file(jobId);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            terminateLastLine(file);
+            return Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ends a line cut short by a crash, so that records appended after a resume stay readable.
+     */
+    private static void terminateLastLine(Path file) throws IOException {
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(raf.length() - 1);
+            if (raf.read() != '\n') {
+                raf.write('\n');
+            }
+        }
+    }
+
+    private Path file(String jobId) {
+        return Paths.get(directory, jobId + ".jsonl");
+    }
+
+    /**
+     * Kinds of journal records.
+     */
+    public enum RecordType {
+        JOB_STARTED, BUSINESS, EMAIL, TASK_FINISHED
+    }
+
+    /**
+     * One line of a job journal; only the fields of its type are set.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Record {
+        private RecordType type;
+        private long time;
+        private JobPriority priority;
+        private Boolean saveToDatabase;
+        private Integer maxConcurrentTasks;
+        private List<TaskStatus> tasks;
+        private String taskId;
+        private Business business;
+        private Boolean persisted;
+        private String businessId;
+        private String email;
+        private String status;
+        private String message;
+    }
+}
@@ -0,0 +1,84 @@
+package com.mybusinessextractor.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Resolves link shortener URLs to the site they point to instead of crawling the shortener.
+ * Only the redirect is requested; the target is classified again before it is crawled.
+ * Requests to the shortener are subject to the same politeness scheduling and circuit breaker
+ * as page fetches.
+ */
+@Slf4j
+@Component
+@Order(3)
+public class LinkShortenerCrawlRule implements CrawlRule {
+
+    private static final Set<String> SHORTENER_DOMAINS = Set.of(
+            "bit.ly", "tinyurl.com", "t.co", "ow.ly", "is.gd", "buff.ly", "rebrand.ly", "cutt.ly",
+            "shorturl.at", "goo.gl", "tiny.cc", "t.ly", "s.id", "rb.gy");
+    private static final Duration RESOLVE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final WebClient redirectClient;
+    private final HostCrawlScheduler hostCrawlScheduler;
+    private final HostCircuitBreaker hostCircuitBreaker;
+
+    public LinkShortenerCrawlRule(@Qualifier("crawlerHttpClient") HttpClient crawlerHttpClient,
+                                  HostCrawlScheduler hostCrawlScheduler,
+                                  HostCircuitBreaker hostCircuitBreaker) {
+        // Redirects are not followed, so the Location header of the shortener can be read
+        this.redirectClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(crawlerHttpClient
+                        .followRedirect(false)
+                        .responseTimeout(RESOLVE_TIMEOUT)))
+                .build();
+        this.hostCrawlScheduler = hostCrawlScheduler;
+        this.hostCircuitBreaker = hostCircuitBreaker;
+    }
+
+    @Override
+    public CrawlDecision classify(String url, String host) {
+        return SHORTENER_DOMAINS.stream().anyMatch(domain -> DomainNames.matchesDomain(host, domain))
+                ? CrawlDecision.special("link-shortener", this::resolve)
+                : null;
+    }
+
+    /**
+     * Reads the redirect target of a shortened URL without fetching the target itself.
+     *
+     * @param url The shortened URL
+     * @return A Mono emitting the absolute target URL, or empty if the shortener does not redirect
+     */
+    private Mono<String> resolve(String url) {
+        String host = DomainNames.host(url);
+        if (host == null) {
+            return Mono.empty();
+        }
+        // The timeout starts once the request is sent, not while it waits for its turn
+        Mono<String> fetch = redirectClient.get()
+                .uri(url)
+                .exchangeToMono(response -> {
+                    URI location = response.headers().asHttpHeaders().getLocation();
+                    if (!response.statusCode().is3xxRedirection() || location == null) {
+                        return response.releaseBody().then(Mono.<String>empty());
+                    }
+                    return response.releaseBody().thenReturn(URI.create(url).resolve(location).toString());
+                })
+                .timeout(RESOLVE_TIMEOUT);
+        return hostCircuitBreaker.protect(host, hostCrawlScheduler.schedule(DomainNames.politenessKey(url), fetch))
+                .onErrorResume(e -> {
+                    log.debug("Could not resolve shortened URL: {}", url, e);
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,244 @@
+package com.mybusinessextractor.util;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded LRU cache whose entries expire after a per-entry time to live.
+ * The content can be written to and restored from a JSON file so that a restarted
+ * backend starts with a warm cache. Optionally, expired entries are retained for a while longer
+ * so that their values can still be revalidated instead of being rebuilt from scratch.
+ *
+ * @param <V> The type of the cached values, which must be serializable by Jackson
+ */
+@Slf4j
+public class PersistentTtlCache<V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final JavaType fileType;
+    private final long staleRetentionMillis;
+
+    // Access-ordered, so the eldest entry is the least recently used one
+    private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public PersistentTtlCache(String name, int maxEntries, Path file, ObjectMapper objectMapper, Class<V> valueType) {
+        this(name, maxEntries, file, objectMapper, objectMapper.getTypeFactory().constructType(valueType), Duration.ZERO);
+    }
+
+    public PersistentTtlCache(String name, int maxEntries, Path file, ObjectMapper objectMapper, Class<V> valueType,
+                              Duration staleRetention) {
+        this(name, maxEntries, file, objectMapper, objectMapper.getTypeFactory().constructType(valueType), staleRetention);
+    }
+
+    public PersistentTtlCache(String name, int maxEntries, Path file, ObjectMapper objectMapper, JavaType valueType) {
+        this(name, maxEntries, file, objectMapper, valueType, Duration.ZERO);
+    }
+
+    public PersistentTtlCache(String name, int maxEntries, Path file, ObjectMapper objectMapper, JavaType valueType,
+                              Duration staleRetention) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.file = file;
+        this.objectMapper = objectMapper;
+        JavaType entryType = objectMapper.getTypeFactory().constructParametricType(Entry.class, valueType);
+        this.fileType = objectMapper.getTypeFactory().constructMapType(LinkedHashMap.class,
+                objectMapper.getTypeFactory().constructType(String.class), entryType);
+        this.staleRetentionMillis = staleRetention.toMillis();
+    }
+
+    /**
+     * Gets a fresh value from the cache. Expired entries count as a miss and are removed
+     * once they are past the stale retention.
+     *
+     * @param key The cache key
+     * @return The cached value or null if absent or expired
+     */
+    public V get(String key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            long now = System.currentTimeMillis();
+            if (entry != null && entry.isExpired(now)) {
+                if (!isRetained(entry, now)) {
+                    entries.remove(key);
+                    dirty.set(true);
+                }
+                expirations.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.getValue();
+        }
+    }
+
+    /**
+     * Gets an expired value that is still within the stale retention, e.g. to revalidate it.
+     * Does not count as a hit or miss.
+     *
+     * @param key The cache key
+     * @return The expired value or null if absent, fresh or past the stale retention
+     */
+    public V getStale(String key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            long now = System.currentTimeMillis();
+            return entry != null && entry.isExpired(now) && isRetained(entry, now) ? entry.getValue() : null;
+        }
+    }
+
+    /**
+     * Puts a value into the cache, evicting the least recently used entries when the size bound is exceeded.
+     *
+     * @param key The cache key
+     * @param value The value to cache
+     * @param ttl How long the value stays fresh
+     */
+    public void put(String key, V value, Duration ttl) {
+        if (key == null || value == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttl.toMillis()));
+            Iterator<Map.Entry<String, Entry<V>>> iterator = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        dirty.set(true);
+    }
+
+    /**
+     * Removes a value from the cache.
+     *
+     * @param key The cache key
+     */
+    public void remove(String key) {
+        synchronized (entries) {
+            if (entries.remove(key) != null) {
+                dirty.set(true);
+            }
+        }
+    }
+
+    /**
+     * @return The number of entries currently held, including expired ones not yet purged
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Restores the cache from its file, skipping entries that have expired past the stale retention in the meantime.
+     */
+    public void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            Map<String, Entry<V>> stored = objectMapper.readValue(file.toFile(), fileType);
+            long now = System.currentTimeMillis();
+            synchronized (entries) {
+                stored.forEach((key, entry) -> {
+                    if (isRetained(entry, now) && entries.size() < maxEntries) {
+                        entries.put(key, entry);
+                    }
+                });
+            }
+            log.info("Loaded {} entries into the {} cache from {}", size(), name, file);
+        } catch (IOException e) {
+            log.warn("Could not load the {} cache from {}", name, file, e);
+        }
+    }
+
+    /**
+     * Writes the cache to its file if it has changed since the last write.
+     * The file is replaced atomically so a crash never leaves a truncated cache behind.
+     */
+    public void saveIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        Map<String, Entry<V>> snapshot;
+        synchronized (entries) {
+            snapshot = new LinkedHashMap<>(entries);
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writeValue(tempFile.toFile(), snapshot);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved {} entries of the {} cache to {}", snapshot.size(), name, file);
+        } catch (IOException e) {
+            dirty.set(true);
+            log.warn("Could not save the {} cache to {}", name, file, e);
+        }
+    }
+
+    private boolean isRetained(Entry<V> entry, long now) {
+        return now < entry.getExpiresAt() + staleRetentionMillis;
+    }
+
+    /**
+     * @return A snapshot of the cache counters
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        stats.put("expirations", expirations.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    /**
+     * A cached value together with its expiry time.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry<V> {
+        private V value;
+        private long expiresAt;
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.mybusinessextractor.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybusinessextractor.model.Business;
+import com.mybusinessextractor.service.StatsProvider;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Cache of Place Details responses keyed by Google Place ID.
+ * Every hit saves one paid Place Details request, so the hit counter is the quota saved.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlaceDetailsCache implements StatsProvider {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${cache.directory}")
+    private String cacheDirectory;
+
+    @Value("${cache.place-details.max-entries}")
+    private int maxEntries;
+
+    @Value("${cache.place-details.ttl}")
+    private Duration ttl;
+
+    @Value("${cache.flush-interval}")
+    private Duration flushInterval;
+
+    private PersistentTtlCache<Business> cache;
+    private Disposable flushTask;
+
+    @PostConstruct
+    void init() {
+        cache = new PersistentTtlCache<>("place details", maxEntries,
+                Paths.get(cacheDirectory, "place-details.json"), objectMapper, Business.class);
+        cache.load();
+        flushTask = Flux.interval(flushInterval, Schedulers.boundedElastic())
+                .subscribe(tick -> cache.saveIfDirty());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushTask.dispose();
+        cache.saveIfDirty();
+    }
+
+    /**
+     * Gets the cached details of a place.
+     *
+     * @param placeId The Google Place ID
+     * @return A copy of the cached business or null if not cached or stale
+     */
+    public Business get(String placeId) {
+        Business business = cache.get(placeId);
+        return business != null ? business.toBuilder().build() : null;
+    }
+
+    /**
+     * Caches the details of a place.
+     *
+     * @param placeId The Google Place ID
+     * @param business The business built from the Place Details response
+     */
+    public void put(String placeId, Business business) {
+        cache.put(placeId, business.toBuilder().build(), ttl);
+    }
+
+    @Override
+    public String getStatsName() {
+        return "placeDetailsCache";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        return cache.getStats();
+    }
+}
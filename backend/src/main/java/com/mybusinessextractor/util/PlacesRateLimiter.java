@@ -0,0 +1,211 @@
+package com.mybusinessextractor.util;
+
+import com.mybusinessextractor.dto.JobPriority;
+import com.mybusinessextractor.service.StatsProvider;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket shared by all Google Places API calls (text search and details).
+ * The refill rate adapts to the API: it is halved whenever the API answers with
+ * OVER_QUERY_LIMIT and grows back additively with every successful call, up to the configured QPS.
+ * Callers that find the bucket empty wait in a queue per {@link JobPriority}, and the tokens are
+ * shared between the queues in proportion to the weights of their priorities.
+ */
+@Slf4j
+@Component
+public class PlacesRateLimiter implements StatsProvider {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    @Value("${places.rate-limit.qps}")
+    private double maxRate;
+
+    @Value("${places.rate-limit.min-qps}")
+    private double minRate;
+
+    @Value("${places.rate-limit.burst}")
+    private double burst;
+
+    @Value("${places.rate-limit.recovery-step}")
+    private double recoveryStep;
+
+    @Value("${places.rate-limit.decrease-cooldown}")
+    private Duration decreaseCooldown;
+
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+    private long lastDecrease;
+
+    private final Map<JobPriority, ArrayDeque<MonoSink<Void>>> waiters = new EnumMap<>(JobPriority.class);
+    private final WeightedFairShare<JobPriority> fairShare = new WeightedFairShare<>();
+    private int waiting;
+    private Disposable wakeUp;
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong delayed = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        rate = maxRate;
+        tokens = burst;
+        lastRefill = System.nanoTime();
+        lastDecrease = lastRefill - decreaseCooldown.toNanos();
+        for (JobPriority priority : JobPriority.values()) {
+            waiters.put(priority, new ArrayDeque<>());
+        }
+        log.info("Places API rate limited to {} requests per second (burst {})", maxRate, burst);
+    }
+
+    /**
+     * Waits until the caller may issue one Places API request. The caller waits in the queue of
+     * the {@link JobPriority} found in its subscriber context; a cancelled wait leaves the queue.
+     *
+     * @return A Mono that completes when the request may be sent
+     */
+    public Mono<Void> acquire() {
+        return Mono.create(sink -> {
+            acquired.incrementAndGet();
+            JobPriority priority = JobPriority.from(sink.contextView());
+            synchronized (this) {
+                refill(System.nanoTime());
+                if (waiting == 0 && tokens >= 1) {
+                    tokens -= 1;
+                    sink.success();
+                    return;
+                }
+                ArrayDeque<MonoSink<Void>> queue = waiters.get(priority);
+                if (queue.isEmpty()) {
+                    fairShare.activate(priority);
+                }
+                queue.addLast(sink);
+                waiting++;
+            }
+            delayed.incrementAndGet();
+            sink.onCancel(() -> cancel(priority, sink));
+            drain();
+        });
+    }
+
+    /**
+     * Takes a token only if one is available right away and no caller is waiting for one.
+     *
+     * @return Whether the caller may issue one Places API request
+     */
+    public synchronized boolean tryAcquire() {
+        refill(System.nanoTime());
+        if (waiting == 0 && tokens >= 1) {
+            acquired.incrementAndGet();
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a successful call and lets the rate recover towards the configured maximum.
+     */
+    public synchronized void onSuccess() {
+        if (rate < maxRate) {
+            refill(System.nanoTime());
+            rate = Math.min(maxRate, rate + recoveryStep);
+        }
+    }
+
+    /**
+     * Records an OVER_QUERY_LIMIT answer and halves the rate. Answers arriving within the
+     * cooldown belong to the same burst and do not lower the rate again.
+     */
+    public synchronized void onThrottled() {
+        throttled.incrementAndGet();
+        long now = System.nanoTime();
+        if (now - lastDecrease < decreaseCooldown.toNanos()) {
+            return;
+        }
+        refill(now);
+        lastDecrease = now;
+        rate = Math.max(minRate, rate / 2);
+        // Drop the saved-up burst so the lower rate takes effect immediately
+        tokens = Math.min(tokens, 0);
+        log.warn("Places API over query limit, reducing rate to {} requests per second", rate);
+    }
+
+    @Override
+    public String getStatsName() {
+        return "placesRateLimiter";
+    }
+
+    @Override
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxQps", maxRate);
+        stats.put("currentQps", rate);
+        stats.put("acquired", acquired.get());
+        stats.put("delayed", delayed.get());
+        stats.put("throttled", throttled.get());
+        Map<String, Integer> waitingByPriority = new LinkedHashMap<>();
+        waiters.forEach((priority, queue) -> waitingByPriority.put(priority.name(), queue.size()));
+        stats.put("waiting", waitingByPriority);
+        return stats;
+    }
+
+    /**
+     * Hands the available tokens to the waiting callers, each time serving the priority furthest
+     * behind its weighted share, and schedules a wake-up for when the next token is due.
+     */
+    private void drain() {
+        List<MonoSink<Void>> granted = new ArrayList<>();
+        synchronized (this) {
+            refill(System.nanoTime());
+            while (waiting > 0 && tokens >= 1) {
+                JobPriority priority = fairShare.pick(() -> waiters.entrySet().stream()
+                        .filter(entry -> !entry.getValue().isEmpty())
+                        .map(Map.Entry::getKey)
+                        .iterator());
+                granted.add(waiters.get(priority).pollFirst());
+                waiting--;
+                tokens -= 1;
+                fairShare.charge(priority, priority.getWeight());
+            }
+            if (waiting > 0 && wakeUp == null) {
+                long waitNanos = Math.max(1, (long) ((1 - tokens) / rate * NANOS_PER_SECOND));
+                wakeUp = Schedulers.parallel().schedule(() -> {
+                    synchronized (this) {
+                        wakeUp = null;
+                    }
+                    drain();
+                }, waitNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        granted.forEach(MonoSink::success);
+    }
+
+    private synchronized void cancel(JobPriority priority, MonoSink<Void> sink) {
+        if (waiters.get(priority).remove(sink)) {
+            waiting--;
+        }
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - lastRefill) * rate / NANOS_PER_SECOND);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,252 @@
+package com.mybusinessextractor.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.mybusinessextractor.dto.PlaceResult;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streaming decoder for Google Places API responses.
+ * The response body is fed buffer by buffer into a non-blocking Jackson parser and every place
+ * is emitted as soon as its JSON object is complete, without building a String or a JsonNode
+ * tree of the whole response. Fields of a place that the extractor does not use are skipped
+ * while parsing and never materialized.
+ */
+@Component
+@RequiredArgsConstructor
+public class PlacesResponseDecoder {
+
+    private static final Set<String> PLACE_FIELDS = Set.of(
+            "place_id", "name", "vicinity", "formatted_address", "formatted_phone_number",
+            "website", "url", "geometry", "address_components");
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Decodes a Text Search or Place Details response body.
+     * Places found under "results" or "result" are emitted as {@link PlacePart}s in document order,
+     * followed by exactly one {@link StatusPart} once the body has been fully read. A next page token
+     * is additionally emitted as a {@link NextPageTokenPart} as soon as it is read, which is usually
+     * before the first place.
+     *
+     * @param body The response body
+     * @return The decoded parts of the response
+     */
+    public Flux<Part> decode(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            DecoderState state = new DecoderState();
+            return body
+                    .concatMapIterable(buffer -> {
+                        try {
+                            return state.feed(buffer);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(state.finish())))
+                    .doFinally(signal -> state.close());
+        });
+    }
+
+    /**
+     * A decoded part of a Places API response.
+     */
+    public interface Part {
+    }
+
+    /**
+     * A place from the "results" array or the "result" object.
+     */
+    @Value
+    public static class PlacePart implements Part {
+        PlaceResult place;
+    }
+
+    /**
+     * The next page token, emitted as soon as it has been read.
+     */
+    @Value
+    public static class NextPageTokenPart implements Part {
+        String nextPageToken;
+    }
+
+    /**
+     * The top-level status fields, emitted after the last place.
+     */
+    @Value
+    public static class StatusPart implements Part {
+        String status;
+        String errorMessage;
+        String nextPageToken;
+    }
+
+    /**
+     * Parser state of one response body.
+     */
+    private final class DecoderState {
+
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+
+        private int depth;
+        private String fieldName;
+        private boolean inResults;
+
+        private String status;
+        private String errorMessage;
+        private String nextPageToken;
+
+        // Tokens of the place currently being read
+        private TokenBuffer capture;
+        private int captureDepth;
+        private boolean skipNextValue;
+        private int skipDepth;
+
+        private DecoderState() {
+            try {
+                parser = objectMapper.getFactory().createNonBlockingByteBufferParser();
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+            feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        private List<Part> feed(DataBuffer buffer) {
+            List<Part> parts = new ArrayList<>();
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    ByteBuffer byteBuffer = iterator.next();
+                    feeder.feedInput(byteBuffer);
+                    drain(parts);
+                }
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+            return parts;
+        }
+
+        private List<Part> finish() {
+            List<Part> parts = new ArrayList<>();
+            feeder.endOfInput();
+            try {
+                drain(parts);
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+            parts.add(new StatusPart(status, errorMessage, nextPageToken));
+            return parts;
+        }
+
+        private void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // Nothing left to release
+            }
+        }
+
+        private void drain(List<Part> parts) throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (capture != null) {
+                    capture(token, parts);
+                } else {
+                    track(token, parts);
+                }
+            }
+        }
+
+        private void track(JsonToken token, List<Part> parts) throws IOException {
+            switch (token) {
+                case START_OBJECT -> {
+                    if ((depth == 1 && "result".equals(fieldName)) || (depth == 2 && inResults)) {
+                        capture = new TokenBuffer(parser);
+                        capture.copyCurrentEvent(parser);
+                        captureDepth = 1;
+                        return;
+                    }
+                    depth++;
+                }
+                case START_ARRAY -> {
+                    if (depth == 1 && "results".equals(fieldName)) {
+                        inResults = true;
+                    }
+                    depth++;
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    depth--;
+                    if (depth == 1) {
+                        inResults = false;
+                    }
+                }
+                case FIELD_NAME -> {
+                    if (depth == 1) {
+                        fieldName = parser.currentName();
+                    }
+                }
+                case VALUE_STRING -> {
+                    if (depth == 1) {
+                        switch (fieldName) {
+                            case "status" -> status = parser.getText();
+                            case "error_message" -> errorMessage = parser.getText();
+                            case "next_page_token" -> {
+                                nextPageToken = parser.getText();
+                                parts.add(new NextPageTokenPart(nextPageToken));
+                            }
+                            default -> { }
+                        }
+                    }
+                }
+                default -> { }
+            }
+        }
+
+        private void capture(JsonToken token, List<Part> parts) throws IOException {
+            if (skipDepth > 0) {
+                if (token.isStructStart()) {
+                    skipDepth++;
+                } else if (token.isStructEnd()) {
+                    skipDepth--;
+                }
+                return;
+            }
+            if (skipNextValue) {
+                skipNextValue = false;
+                if (token.isStructStart()) {
+                    skipDepth = 1;
+                }
+                return;
+            }
+            if (token == JsonToken.FIELD_NAME && captureDepth == 1 && !PLACE_FIELDS.contains(parser.currentName())) {
+                skipNextValue = true;
+                return;
+            }
+
+            capture.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                captureDepth++;
+            } else if (token.isStructEnd() && --captureDepth == 0) {
+                try (JsonParser placeParser = capture.asParser()) {
+                    parts.add(new PlacePart(objectMapper.readValue(placeParser, PlaceResult.class)));
+                }
+                capture = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.mybusinessextractor.util;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybusinessextractor.model.Business;
+import com.mybusinessextractor.service.StatsProvider;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Paths;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of Text Search results keyed by the normalized (category, location) query.
+ * A hit skips the whole pagination chain including the mandatory delays between pages.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchResultCache implements StatsProvider {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${cache.directory}")
+    private String cacheDirectory;
+
+    @Value("${cache.search-results.max-entries}")
+    private int maxEntries;
+
+    @Value("${cache.search-results.ttl}")
+    private Duration ttl;
+
+    @Value("${cache.flush-interval}")
+    private Duration flushInterval;
+
+    private PersistentTtlCache<List<Business>> cache;
+    private Disposable flushTask;
+
+    @PostConstruct
+    void init() {
+        JavaType valueType = objectMapper.getTypeFactory().constructCollectionType(List.class, Business.class);
+        cache = new PersistentTtlCache<>("search results", maxEntries,
+                Paths.get(cacheDirectory, "search-results.json"), objectMapper, valueType);
+        cache.load();
+        flushTask = Flux.interval(flushInterval, Schedulers.boundedElastic())
+                .subscribe(tick -> cache.saveIfDirty());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushTask.dispose();
+        cache.saveIfDirty();
+    }
+
+    /**
+     * Builds the cache key of a query. The category and location are expected to be translated
+     * already; the key additionally ignores case, diacritics and repeated whitespace.
+     *
+     * @param category The translated search category
+     * @param location The translated search location
+     * @return The normalized cache key
+     */
+    public String key(String category, String location) {
+        return normalize(category) + "|" + normalize(location);
+    }
+
+    /**
+     * Gets the cached results of a query.
+     *
+     * @param key The normalized cache key
+     * @return Copies of the cached businesses or null if not cached or stale
+     */
+    public List<Business> get(String key) {
+        List<Business> businesses = cache.get(key);
+        return businesses != null ? copyOf(businesses) : null;
+    }
+
+    /**
+     * Caches the results of a query.
+     *
+     * @param key The normalized cache key
+     * @param businesses The basic businesses returned by all result pages
+     */
+    public void put(String key, List<Business> businesses) {
+        cache.put(key, copyOf(businesses), ttl);
+    }
+
+    @Override
+    public String getStatsName() {
+        return "searchResultCache";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        return cache.getStats();
+    }
+
+    private List<Business> copyOf(List<Business> businesses) {
+        return businesses.stream()
+                .map(business -> business.toBuilder().build())
+                .toList();
+    }
+
+    private String normalize(String value) {
+        String lowerCase = value.trim()
+                .replace('ı', 'i')
+                .replace('İ', 'I')
+                .toLowerCase(Locale.ROOT);
+        String withoutDiacritics = DIACRITICS.matcher(Normalizer.normalize(lowerCase, Normalizer.Form.NFD))
+                .replaceAll("");
+        return WHITESPACE.matcher(withoutDiacritics).replaceAll(" ");
+    }
+}
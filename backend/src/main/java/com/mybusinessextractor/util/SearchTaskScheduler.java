@@ -0,0 +1,297 @@
+package com.mybusinessextractor.util;
+
+import com.mybusinessextractor.dto.JobPriority;
+import com.mybusinessextractor.service.StatsProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler for the category × location tasks of search jobs.
+ * Every job has its own queue of waiting tasks. At most a configured number of tasks run at the
+ * same time in total, and each job is further capped to its own limit. Free slots are shared
+ * across the jobs with waiting tasks in proportion to the weights of their priorities, so a small
+ * interactive job is served ahead of a bulk job, while a job that has no more work, or is at its
+ * own cap, leaves its share to the others instead of letting slots go idle.
+ */
+@Slf4j
+@Component
+public class SearchTaskScheduler implements StatsProvider {
+
+    private final int maxConcurrency;
+    private final int maxConcurrencyPerJob;
+
+    private final Map<String, JobQueue> jobs = new HashMap<>();
+    // Jobs with waiting tasks, in the order they became backlogged
+    private final ArrayDeque<JobQueue> rotation = new ArrayDeque<>();
+    private final WeightedFairShare<JobQueue> fairShare = new WeightedFairShare<>();
+    private int active;
+    private int queued;
+    private long started;
+    private long completed;
+    private boolean closed;
+
+    public SearchTaskScheduler(@Value("${extractor.tasks.max-concurrency}") int maxConcurrency,
+                               @Value("${extractor.tasks.max-concurrency-per-job}") int maxConcurrencyPerJob) {
+        this.maxConcurrency = maxConcurrency;
+        this.maxConcurrencyPerJob = maxConcurrencyPerJob;
+        log.info("Search tasks limited to {} in total and {} per job", maxConcurrency, maxConcurrencyPerJob);
+    }
+
+    /**
+     * Runs a task once a slot is free within the global limit and the limit of its job.
+     * The {@link JobPriority} in the subscriber context sets the weight of the job and the
+     * context is passed on to the task.
+     *
+     * @param jobId The ID of the job the task belongs to
+     * @param jobConcurrency The task limit requested for the job, or 0 for the configured default;
+     *                       all tasks of a job must request the same limit
+     * @param task The task, subscribed to when it is its turn
+     * @return A Mono emitting the result of the task, or failing with an IllegalArgumentException if
+     *         the job already has tasks with a different limit
+     */
+    public <T> Mono<T> schedule(String jobId, int jobConcurrency, Mono<T> task) {
+        return Mono.create(sink -> {
+            Task<T> scheduled = new Task<>(task, sink);
+            synchronized (this) {
+                if (closed) {
+                    sink.error(new IllegalStateException("Search task scheduler is shut down"));
+                    return;
+                }
+                int limit = jobLimit(jobConcurrency);
+                JobQueue jobQueue = jobs.computeIfAbsent(jobId, id ->
+                        new JobQueue(id, limit, JobPriority.from(sink.contextView())));
+                if (jobQueue.maxConcurrency != limit) {
+                    sink.error(new IllegalArgumentException("Job " + jobId + " is scheduled with a limit of "
+                            + jobQueue.maxConcurrency + " tasks, not " + limit));
+                    return;
+                }
+                scheduled.jobQueue = jobQueue;
+                if (jobQueue.waiting.isEmpty()) {
+                    rotation.addLast(jobQueue);
+                    fairShare.activate(jobQueue);
+                }
+                jobQueue.waiting.addLast(scheduled);
+                queued++;
+            }
+            sink.onDispose(scheduled::cancel);
+            dispatch();
+        });
+    }
+
+    /**
+     * Stops accepting tasks, drops the waiting ones and waits for the running ones to finish.
+     * Dropped tasks fail without having been subscribed to.
+     *
+     * @param timeout The maximum time to wait for the running tasks
+     * @return Whether all running tasks finished within the timeout
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public boolean shutdown(Duration timeout) throws InterruptedException {
+        List<Task<?>> dropped = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            rotation.forEach(jobQueue -> {
+                dropped.addAll(jobQueue.waiting);
+                jobQueue.waiting.clear();
+            });
+            rotation.clear();
+            queued = 0;
+        }
+        dropped.forEach(task -> task.sink.error(new IllegalStateException("Search task scheduler is shut down")));
+        log.info("Dropped {} waiting search tasks, waiting for {} running ones", dropped.size(), active);
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (this) {
+            while (active > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The number of tasks waiting for a slot
+     */
+    public synchronized int getQueued() {
+        return queued;
+    }
+
+    /**
+     * @param jobId The job ID
+     * @return The number of tasks of the job waiting for a slot
+     */
+    public synchronized int getQueued(String jobId) {
+        JobQueue jobQueue = jobs.get(jobId);
+        return jobQueue != null ? jobQueue.waiting.size() : 0;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "searchTasks";
+    }
+
+    @Override
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxConcurrency", maxConcurrency);
+        stats.put("maxConcurrencyPerJob", maxConcurrencyPerJob);
+        stats.put("active", active);
+        stats.put("queued", queued);
+        stats.put("started", started);
+        stats.put("completed", completed);
+        Map<String, Map<String, Object>> byJob = new LinkedHashMap<>();
+        jobs.values().forEach(jobQueue -> {
+            Map<String, Object> jobStats = new LinkedHashMap<>();
+            jobStats.put("active", jobQueue.active);
+            jobStats.put("queued", jobQueue.waiting.size());
+            jobStats.put("maxConcurrency", jobQueue.maxConcurrency);
+            jobStats.put("weight", jobQueue.priority.getWeight());
+            byJob.put(jobQueue.jobId, jobStats);
+        });
+        stats.put("jobs", byJob);
+        return stats;
+    }
+
+    private int jobLimit(int requested) {
+        int limit = requested > 0 ? requested : maxConcurrencyPerJob;
+        return Math.min(limit, maxConcurrency);
+    }
+
+    /**
+     * Starts as many waiting tasks as the global and per-job limits allow, each time serving
+     * the job below its own cap that is furthest behind its weighted share.
+     */
+    private void dispatch() {
+        List<Task<?>> toStart = new ArrayList<>();
+        synchronized (this) {
+            while (active < maxConcurrency) {
+                JobQueue jobQueue = fairShare.pick(() -> rotation.stream()
+                        .filter(candidate -> candidate.active < candidate.maxConcurrency)
+                        .iterator());
+                if (jobQueue == null) {
+                    break;
+                }
+
+                Task<?> task = jobQueue.waiting.pollFirst();
+                queued--;
+                jobQueue.active++;
+                active++;
+                started++;
+                fairShare.charge(jobQueue, jobQueue.priority.getWeight());
+                task.started = true;
+                toStart.add(task);
+                if (jobQueue.waiting.isEmpty()) {
+                    rotation.remove(jobQueue);
+                }
+            }
+        }
+        toStart.forEach(Task::start);
+    }
+
+    private void release(JobQueue jobQueue) {
+        synchronized (this) {
+            jobQueue.active--;
+            active--;
+            completed++;
+            removeIfIdle(jobQueue);
+            notifyAll();
+        }
+        dispatch();
+    }
+
+    private void removeIfIdle(JobQueue jobQueue) {
+        if (jobQueue.active == 0 && jobQueue.waiting.isEmpty()) {
+            jobs.remove(jobQueue.jobId, jobQueue);
+            fairShare.remove(jobQueue);
+        }
+    }
+
+    /**
+     * Task queue, limit and priority of one job.
+     */
+    private static final class JobQueue {
+        private final String jobId;
+        private final int maxConcurrency;
+        private final JobPriority priority;
+        private final ArrayDeque<Task<?>> waiting = new ArrayDeque<>();
+        private int active;
+
+        private JobQueue(String jobId, int maxConcurrency, JobPriority priority) {
+            this.jobId = jobId;
+            this.maxConcurrency = maxConcurrency;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * A scheduled task and the subscriber waiting for its result.
+     */
+    private final class Task<T> {
+        private final Mono<T> task;
+        private final MonoSink<T> sink;
+        private JobQueue jobQueue;
+        private boolean started;
+        private boolean cancelled;
+        private Disposable running;
+
+        private Task(Mono<T> task, MonoSink<T> sink) {
+            this.task = task;
+            this.sink = sink;
+        }
+
+        private void start() {
+            Disposable disposable = task
+                    .doFinally(signal -> release(jobQueue))
+                    .contextWrite(sink.contextView())
+                    .subscribe(sink::success, sink::error, sink::success);
+            synchronized (SearchTaskScheduler.this) {
+                if (!cancelled) {
+                    running = disposable;
+                    return;
+                }
+            }
+            disposable.dispose();
+        }
+
+        private void cancel() {
+            Disposable toDispose;
+            synchronized (SearchTaskScheduler.this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                if (!started) {
+                    if (jobQueue.waiting.remove(this)) {
+                        queued--;
+                        if (jobQueue.waiting.isEmpty()) {
+                            rotation.remove(jobQueue);
+                            removeIfIdle(jobQueue);
+                        }
+                    }
+                    return;
+                }
+                toDispose = running;
+            }
+            if (toDispose != null) {
+                toDispose.dispose();
+            }
+        }
+    }
+}
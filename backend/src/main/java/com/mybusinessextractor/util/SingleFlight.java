@@ -0,0 +1,64 @@
+package com.mybusinessextractor.util;
+
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Registry of in-flight calls that lets concurrent callers for the same key share one
+ * outstanding call and its result. The entry is removed as soon as the call terminates,
+ * so later callers start a fresh call.
+ *
+ * @param <V> The result type of the calls
+ */
+public class SingleFlight<V> {
+
+    private final Map<String, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Joins the in-flight call for the key or starts a new one.
+     *
+     * @param key The key identifying identical calls
+     * @param call Supplies the call if none is in flight for the key
+     * @return A Mono emitting the shared result
+     */
+    public Mono<V> execute(String key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<V>> created = new AtomicReference<>();
+            Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+                AtomicReference<Mono<V>> self = new AtomicReference<>();
+                Mono<V> mono = call.get()
+                        .doFinally(signal -> inFlight.remove(k, self.get()))
+                        .cache();
+                self.set(mono);
+                created.set(mono);
+                return mono;
+            });
+
+            if (created.get() != null) {
+                executed.incrementAndGet();
+            } else {
+                coalesced.incrementAndGet();
+            }
+            return shared;
+        });
+    }
+
+    /**
+     * @return A snapshot of the executed and coalesced call counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight.size());
+        stats.put("executed", executed.get());
+        stats.put("coalesced", coalesced.get());
+        return stats;
+    }
+}
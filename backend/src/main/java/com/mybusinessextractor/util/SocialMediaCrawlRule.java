@@ -0,0 +1,27 @@
+package com.mybusinessextractor.util;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Skips social media and messenger URLs. Their profile pages require a login or scripts
+ * and block crawlers, so a fetch only costs time.
+ */
+@Component
+@Order(2)
+public class SocialMediaCrawlRule implements CrawlRule {
+
+    private static final Set<String> SOCIAL_MEDIA_DOMAINS = Set.of(
+            "facebook.com", "fb.com", "fb.me", "instagram.com", "twitter.com", "x.com", "linkedin.com",
+            "youtube.com", "youtu.be", "tiktok.com", "pinterest.com", "wa.me", "whatsapp.com",
+            "t.me", "telegram.me", "vk.com", "threads.net");
+
+    @Override
+    public CrawlDecision classify(String url, String host) {
+        return SOCIAL_MEDIA_DOMAINS.stream().anyMatch(domain -> DomainNames.matchesDomain(host, domain))
+                ? CrawlDecision.skip("social-media")
+                : null;
+    }
+}
@@ -0,0 +1,68 @@
+package com.mybusinessextractor.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stride scheduling over competing queues: every queue has a pass that advances by the inverse of
+ * its weight each time it is served, and the queue with the lowest pass is served next. Over time
+ * each backlogged queue gets a share proportional to its weight. A queue that becomes backlogged
+ * again starts at the current virtual time, so idle time cannot be saved up as credit.
+ * Not thread-safe; callers synchronize.
+ *
+ * @param <K> The type identifying the queues
+ */
+public class WeightedFairShare<K> {
+
+    private final Map<K, Double> passes = new HashMap<>();
+    private double virtualTime;
+
+    /**
+     * Marks a queue as backlogged again after it had nothing waiting.
+     *
+     * @param key The queue
+     */
+    public void activate(K key) {
+        passes.merge(key, virtualTime, Math::max);
+    }
+
+    /**
+     * Picks the candidate to serve next.
+     *
+     * @param candidates The queues that could be served now
+     * @return The candidate with the lowest pass, the first one on ties, or null if there is none
+     */
+    public K pick(Iterable<K> candidates) {
+        K best = null;
+        double bestPass = Double.MAX_VALUE;
+        for (K candidate : candidates) {
+            double pass = passes.getOrDefault(candidate, virtualTime);
+            if (pass < bestPass) {
+                best = candidate;
+                bestPass = pass;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Records that a queue has been served once.
+     *
+     * @param key The queue
+     * @param weight The weight of the queue
+     */
+    public void charge(K key, int weight) {
+        double pass = passes.getOrDefault(key, virtualTime);
+        virtualTime = Math.max(virtualTime, pass);
+        passes.put(key, pass + 1.0 / weight);
+    }
+
+    /**
+     * Forgets a queue that will not be served again.
+     *
+     * @param key The queue
+     */
+    public void remove(K key) {
+        passes.remove(key);
+    }
+}
@@ -0,0 +1,55 @@
+package com.mybusinessextractor.controller;
+
+import com.mybusinessextractor.config.WebClientConfig;
+import com.mybusinessextractor.dto.JobPriority;
+import com.mybusinessextractor.dto.JobSummary;
+import com.mybusinessextractor.service.BusinessExtractorService;
+import com.mybusinessextractor.service.impl.BusinessPersistenceServiceImpl;
+import com.mybusinessextractor.util.ConnectionPoolStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BusinessExtractorController.class)
+@Import({WebClientConfig.class, ConnectionPoolStats.class})
+class BusinessExtractorControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private BusinessExtractorService businessExtractorService;
+
+	@MockBean
+	private BusinessPersistenceServiceImpl businessPersistenceService;
+
+	@Test
+	void serializesJobTimestampsAsIsoStrings() throws Exception {
+		when(businessExtractorService.getJobs()).thenReturn(List.of(JobSummary.builder()
+				.id("job")
+				.status("COMPLETED")
+				.priority(JobPriority.INTERACTIVE)
+				.createdAt(Instant.parse("2024-05-01T10:15:30Z"))
+				.finishedAt(Instant.parse("2024-05-01T10:16:00Z"))
+				.tasks(2)
+				.total(7)
+				.build()));
+
+		mockMvc.perform(get("/api/jobs"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].id").value("job"))
+				.andExpect(jsonPath("$[0].createdAt").value("2024-05-01T10:15:30Z"))
+				.andExpect(jsonPath("$[0].finishedAt").value("2024-05-01T10:16:00Z"));
+	}
+}
@@ -0,0 +1,136 @@
+package com.mybusinessextractor.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybusinessextractor.dto.JobPriority;
+import com.mybusinessextractor.dto.TaskStatus;
+import com.mybusinessextractor.model.Business;
+import com.mybusinessextractor.service.EmailCrawlerService;
+import com.mybusinessextractor.service.GooglePlacesService;
+import com.mybusinessextractor.util.CountryCitiesUtil;
+import com.mybusinessextractor.util.ExportUtil;
+import com.mybusinessextractor.util.JobJournal;
+import com.mybusinessextractor.util.SearchTaskScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BusinessExtractorServiceImplTest {
+
+	@TempDir
+	Path directory;
+
+	private final GooglePlacesService googlePlacesService = mock(GooglePlacesService.class);
+	private final BusinessPersistenceServiceImpl businessPersistenceService = mock(BusinessPersistenceServiceImpl.class);
+	private JobJournal jobJournal;
+	private BusinessExtractorServiceImpl service;
+
+	@BeforeEach
+	void setUp() {
+		jobJournal = newJournal();
+		service = new BusinessExtractorServiceImpl(googlePlacesService, mock(EmailCrawlerService.class),
+				mock(ExportUtil.class), businessPersistenceService, mock(CountryCitiesUtil.class),
+				new SearchTaskScheduler(4, 4), jobJournal);
+		ReflectionTestUtils.setField(service, "jobRetention", Duration.ofHours(1));
+		ReflectionTestUtils.setField(service, "maxFinishedJobs", 10);
+		ReflectionTestUtils.setField(service, "evictionInterval", Duration.ofHours(1));
+		ReflectionTestUtils.setField(service, "drainTimeout", Duration.ofSeconds(1));
+		ReflectionTestUtils.setField(service, "taskEnrichmentConcurrency", 2);
+		ReflectionTestUtils.setField(service, "globalEnrichmentConcurrency", 4);
+		ReflectionTestUtils.invokeMethod(service, "initEnrichmentLimiter");
+		ReflectionTestUtils.invokeMethod(service, "initEviction");
+		when(googlePlacesService.fetchBusinessDetails(anyString())).thenReturn(Mono.empty());
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReflectionTestUtils.invokeMethod(service, "shutdown");
+		ReflectionTestUtils.invokeMethod(jobJournal, "close");
+	}
+
+	@Test
+	void resumedJobSkipsJournaledWork() throws InterruptedException {
+		// Task 1 finished before the restart; task 2 had enriched and saved "c" and its own copy of "b"
+		JobJournal previousRun = newJournal();
+		previousRun.jobStarted("job", JobPriority.BULK, true, 0, List.of(task("1", "cafe"), task("2", "bakery")));
+		previousRun.businessFound("job", "1", business("a"), true);
+		previousRun.businessFound("job", "1", business("b"), false);
+		previousRun.businessFound("job", "2", business("c"), true);
+		previousRun.businessFound("job", "2", business("b"), true);
+		previousRun.emailFound("job", "2", "b", "info@b.com");
+		previousRun.taskFinished("job", "1", "COMPLETED", null);
+		ReflectionTestUtils.invokeMethod(previousRun, "close");
+		// Task 2 finds "a" too, which it has not produced yet and must enrich
+		when(googlePlacesService.searchBusinesses("bakery", "Izmir"))
+				.thenReturn(Flux.just(business("c"), business("b"), business("a"), business("d")));
+
+		service.resumeInterruptedJobs();
+		awaitFinished("job");
+
+		verify(googlePlacesService, never()).searchBusinesses("cafe", "Izmir");
+		verify(googlePlacesService, never()).fetchBusinessDetails("c");
+		verify(googlePlacesService, never()).fetchBusinessDetails("b");
+		verify(googlePlacesService).fetchBusinessDetails("a");
+		verify(googlePlacesService).fetchBusinessDetails("d");
+		verify(businessPersistenceService, never()).saveBusiness(argThat(business -> "c".equals(business.getId())));
+		verify(businessPersistenceService, never()).saveBusiness(argThat(business -> "b".equals(business.getId())));
+		verify(businessPersistenceService, times(2)).saveBusiness(any());
+
+		Map<String, TaskStatus> tasks = service.getTaskStatus("job").stream()
+				.collect(Collectors.toMap(TaskStatus::getId, Function.identity()));
+		assertThat(tasks.get("1").getStatus()).isEqualTo("COMPLETED");
+		assertThat(tasks.get("1").getTotalItems()).isEqualTo(2);
+		assertThat(tasks.get("1").getPersistedItems()).isEqualTo(1);
+		assertThat(tasks.get("2").getStatus()).isEqualTo("COMPLETED");
+		assertThat(tasks.get("2").getTotalItems()).isEqualTo(4);
+		assertThat(tasks.get("2").getDetailedItems()).isEqualTo(4);
+		assertThat(tasks.get("2").getPersistedItems()).isEqualTo(4);
+		// One result per task and place, as in a run without restart, with the email on the copy of its task
+		List<Business> results = service.getResults("job").getBusinesses();
+		assertThat(results).extracting(Business::getId).containsExactly("a", "b", "c", "b", "a", "d");
+		assertThat(results).extracting(Business::getEmail)
+				.containsExactly(null, null, null, "info@b.com", null, null);
+	}
+
+	private void awaitFinished(String jobId) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (!"COMPLETED".equals(service.getResults(jobId).getStatus())) {
+			assertThat(System.nanoTime()).as("job finished in time").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private JobJournal newJournal() {
+		JobJournal journal = new JobJournal(new ObjectMapper().findAndRegisterModules());
+		ReflectionTestUtils.setField(journal, "directory", directory.toString());
+		return journal;
+	}
+
+	private static TaskStatus task(String id, String category) {
+		return TaskStatus.builder().id(id).category(category).location("Izmir").status("PENDING").build();
+	}
+
+	private static Business business(String id) {
+		return Business.builder().id(id).businessName(id).build();
+	}
+}
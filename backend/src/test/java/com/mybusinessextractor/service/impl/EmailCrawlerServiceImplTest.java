@@ -0,0 +1,43 @@
+package com.mybusinessextractor.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailCrawlerServiceImplTest {
+
+	private EmailCrawlerServiceImpl crawler;
+
+	@BeforeEach
+	void setUp() {
+		crawler = new EmailCrawlerServiceImpl(null, null, null, null, null, null);
+		ReflectionTestUtils.setField(crawler, "maxContactPages", 3);
+	}
+
+	@Test
+	void resolvesRelativeLinksAgainstRootWhenHomePageHasNoPath() {
+		assertThat(crawler.contactPageCandidates("https://firma.com", List.of("iletisim.html", "./kontakt")))
+				.containsExactly("https://firma.com/iletisim.html", "https://firma.com/kontakt",
+						"https://firma.com/iletisim");
+	}
+
+	@Test
+	void resolvesRelativeLinksAgainstHomePagePath() {
+		assertThat(crawler.contactPageCandidates("https://firma.com/tr/", List.of("iletisim.html", "/contact")))
+				.containsExactly("https://firma.com/tr/iletisim.html", "https://firma.com/contact",
+						"https://firma.com/iletisim");
+	}
+
+	@Test
+	void keepsOnlySameSiteLinksWithoutHomePage() {
+		assertThat(crawler.contactPageCandidates("https://www.firma.com",
+				List.of("https://www.firma.com/", "https://other.com/contact", "mailto:info@firma.com",
+						"https://firma.com/bize-ulasin")))
+				.containsExactly("https://firma.com/bize-ulasin", "https://www.firma.com/iletisim",
+						"https://www.firma.com/contact");
+	}
+}
@@ -0,0 +1,145 @@
+package com.mybusinessextractor.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChunkedAppendBufferTest {
+
+	@Test
+	void appendsAcrossChunksInOrder() {
+		ChunkedAppendBuffer<Integer> buffer = new ChunkedAppendBuffer<>(2);
+		for (int i = 0; i < 100; i++) {
+			assertThat(buffer.append(i)).isEqualTo(i + 1);
+		}
+
+		assertThat(buffer.size()).isEqualTo(100);
+		assertThat(buffer.get(57)).isEqualTo(57);
+		assertThat(buffer.range(0, 3)).containsExactly(0, 1, 2);
+		assertThat(buffer.range(97, 10)).containsExactly(97, 98, 99);
+		assertThat(buffer.range(100, 10)).isEmpty();
+		assertThat(buffer.range(250, 10)).isEmpty();
+		assertThatThrownBy(() -> buffer.get(100)).isInstanceOf(IndexOutOfBoundsException.class);
+	}
+
+	@Test
+	void snapshotIgnoresLaterAppends() {
+		ChunkedAppendBuffer<String> buffer = new ChunkedAppendBuffer<>(2);
+		buffer.append("a");
+		buffer.append("b");
+		List<String> snapshot = buffer.snapshot();
+		buffer.append("c");
+
+		assertThat(snapshot).containsExactly("a", "b");
+		assertThat(buffer.snapshot()).containsExactly("a", "b", "c");
+		assertThatThrownBy(() -> snapshot.add("d")).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	void concurrentAppendsPublishEveryElementOnce() throws InterruptedException {
+		ChunkedAppendBuffer<Integer> buffer = new ChunkedAppendBuffer<>(4);
+		int threads = 8;
+		int perThread = 50_000;
+		List<Integer> observedSizes = new CopyOnWriteArrayList<>();
+
+		ingest(threads, perThread, buffer::append, () -> {
+			// Every published prefix is complete while writers are still appending
+			List<Integer> snapshot = buffer.snapshot();
+			assertThat(snapshot).doesNotContainNull();
+			observedSizes.add(snapshot.size());
+		});
+
+		assertThat(buffer.size()).isEqualTo(threads * perThread);
+		Set<Integer> elements = new HashSet<>(buffer.snapshot());
+		assertThat(elements).hasSize(threads * perThread);
+		assertThat(observedSizes).isSorted();
+	}
+
+	/**
+	 * Compares the ingest throughput and allocated bytes of the chunked buffer with the
+	 * CopyOnWriteArrayList it replaced as the result store of a search job. Only runs with
+	 * {@code mvn test -Pbenchmark}, and only reports: the numbers depend on the machine.
+	 */
+	@Test
+	@Tag("benchmark")
+	void benchmarkIngestAgainstCopyOnWriteArrayList() throws InterruptedException {
+		int records = 100_000;
+		int threads = 4;
+
+		// Warm up both paths
+		ingest(threads, 5_000, new ChunkedAppendBuffer<Integer>()::append, () -> { });
+		ingest(threads, 5_000, new CopyOnWriteArrayList<Integer>()::add, () -> { });
+
+		ChunkedAppendBuffer<Integer> buffer = new ChunkedAppendBuffer<>();
+		long start = System.nanoTime();
+		long chunkedAllocated = ingest(threads, records / threads, buffer::append, () -> { });
+		long chunkedNanos = System.nanoTime() - start;
+
+		List<Integer> list = new CopyOnWriteArrayList<>();
+		start = System.nanoTime();
+		long copyOnWriteAllocated = ingest(threads, records / threads, list::add, () -> { });
+		long copyOnWriteNanos = System.nanoTime() - start;
+
+		System.out.printf("Ingest of %d records from %d threads:%n", records, threads);
+		System.out.printf("  CopyOnWriteArrayList: %10.0f records/s, %12d bytes allocated%n",
+				records * 1e9 / copyOnWriteNanos, copyOnWriteAllocated);
+		System.out.printf("  ChunkedAppendBuffer:  %10.0f records/s, %12d bytes allocated%n",
+				records * 1e9 / chunkedNanos, chunkedAllocated);
+
+		assertThat(buffer.size()).isEqualTo(records);
+		assertThat(list).hasSize(records);
+	}
+
+	/**
+	 * Appends from several threads at once, running a reader while they append.
+	 *
+	 * @return The bytes allocated by the appending threads
+	 */
+	private static long ingest(int threads, int perThread, Consumer<Integer> append, Runnable reader)
+			throws InterruptedException {
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		LongAdder allocated = new LongAdder();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(threads);
+		for (int thread = 0; thread < threads; thread++) {
+			int first = thread * perThread;
+			executor.execute(() -> {
+				try {
+					start.await();
+					long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+					for (int i = 0; i < perThread; i++) {
+						append.accept(first + i);
+					}
+					allocated.add(threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+		start.countDown();
+		while (done.getCount() > 0) {
+			reader.run();
+		}
+		done.await();
+		executor.shutdown();
+		assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+		return allocated.sum();
+	}
+}
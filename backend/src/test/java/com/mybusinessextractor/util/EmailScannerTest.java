@@ -0,0 +1,217 @@
+package com.mybusinessextractor.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailScannerTest {
+
+	private final EmailScanner scanner = new EmailScanner(DataSize.ofMegabytes(1));
+
+	@Test
+	void findsPlainAddress() {
+		assertThat(scan("<p>Mail: info@firma.com.tr</p>", 7).getEmail()).isEqualTo("info@firma.com.tr");
+	}
+
+	@Test
+	void findsEncodedMailtoAndObfuscatedAddresses() {
+		assertThat(scan("<a href=\"mailto:info%40firma.com?subject=Hi\">", 5).getEmail()).isEqualTo("info@firma.com");
+		assertThat(scan("info [at] firma [dot] com", 3).getEmail()).isEqualTo("info@firma.com");
+		assertThat(scan("info(at)firma(dot)com", 2).getEmail()).isEqualTo("info@firma.com");
+		assertThat(scan("info&#64;firma&#46;com", 1).getEmail()).isEqualTo("info@firma.com");
+	}
+
+	@Test
+	void skipsFileNamesAndPlaceholderAddresses() {
+		String page = "<img src=\"logo@2x.png\"> you@example.com <p>satis@firma.net</p>";
+		assertThat(scan(page, 4).getEmail()).isEqualTo("satis@firma.net");
+	}
+
+	@Test
+	void decodesCharsetDeclaredInPage() {
+		Charset turkish = Charset.forName("windows-1254");
+		String page = "<meta charset=\"windows-1254\"><p>İletişim: iletişim şubesi</p> bilgi@işletme-örnek.com destek@firma.com";
+		EmailScanner.Result result = scan(page.getBytes(turkish), null, 1);
+		assertThat(result.getEmail()).isEqualTo("destek@firma.com");
+	}
+
+	@Test
+	void decodesCharactersSplitAcrossBuffers() {
+		String page = "çğıöşü ".repeat(100) + "kontak@firma.com";
+		assertThat(scan(page.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, 3).getEmail())
+				.isEqualTo("kontak@firma.com");
+	}
+
+	@Test
+	void stopsAtByteCap() {
+		EmailScanner capped = new EmailScanner(DataSize.ofBytes(1000));
+		byte[] page = ("x".repeat(2000) + " info@firma.com").getBytes(StandardCharsets.UTF_8);
+		EmailScanner.Session session = capped.newSession(StandardCharsets.UTF_8);
+		feed(session, page, 256);
+		EmailScanner.Result result = session.finish();
+
+		assertThat(result.getEmail()).isNull();
+		assertThat(result.getBytesRead()).isEqualTo(1000);
+	}
+
+	@Test
+	void collectsContactLinks() {
+		String page = "<a href=\"/urunler\">Products</a><a href=\"/hakkimizda\">About</a>"
+				+ "<a class=\"nav\" href = '/contact-us'>Contact</a><a href=\"mailto:info@firma.com\">Mail</a>";
+		assertThat(scan(page, 5).getContactLinks()).containsExactly("/hakkimizda", "/contact-us");
+	}
+
+	@Test
+	void stopsReadingOnceAddressIsFound() {
+		byte[] page = largePage("<header>info@firma.com</header>", "");
+		EmailScanner.Result result = scan(page, null, 8192);
+
+		assertThat(result.getEmail()).isEqualTo("info@firma.com");
+		assertThat(result.getBytesRead()).isLessThanOrEqualTo(8192);
+	}
+
+	@Test
+	void findsAddressesAtEndOfLargePages() {
+		assertThat(scan(largePage("", "<footer>destek@firma.com.tr</footer>"), null, 8192).getEmail())
+				.isEqualTo("destek@firma.com.tr");
+		assertThat(scan(largePage("", "<footer>satis [at] firma [dot] net</footer>"), null, 8192).getEmail())
+				.isEqualTo("satis@firma.net");
+	}
+
+	@Test
+	void readsWholePageWithoutAddress() {
+		byte[] page = largePage("", "<footer><a href=\"/contact\">Contact</a></footer>");
+		EmailScanner.Result result = scan(page, null, 8192);
+
+		assertThat(result.getEmail()).isNull();
+		assertThat(result.getBytesRead()).isEqualTo(page.length);
+		assertThat(result.getContactLinks()).containsExactly("/contact");
+		assertThat(scan(page, null, 1000).getContentHash()).isEqualTo(result.getContentHash());
+	}
+
+	/**
+	 * Compares CPU time and allocated bytes of the streaming scanner with the previous
+	 * implementation, which built a String of the whole page and matched it with a regex.
+	 * Only runs with {@code mvn test -Pbenchmark}, and only reports: the numbers depend on the machine.
+	 */
+	@Test
+	@Tag("benchmark")
+	void benchmarkAgainstRegex() {
+		List<byte[]> pages = List.of(
+				largePage("<header>info@firma.com</header>", ""),
+				largePage("", "<footer><a href=\"/contact\">Contact</a> destek@firma.com.tr</footer>"),
+				largePage("", "<footer>satis [at] firma [dot] net</footer>"),
+				largePage("", "<footer><a href=\"/contact\">Contact</a></footer>"));
+		int rounds = 20;
+
+		// Warm up both paths
+		runRegex(pages, 3);
+		runScanner(pages, 3);
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+		long start = threads.getCurrentThreadCpuTime();
+		int regexFound = runRegex(pages, rounds);
+		long regexCpu = threads.getCurrentThreadCpuTime() - start;
+		long regexAllocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+		allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+		start = threads.getCurrentThreadCpuTime();
+		int scannerFound = runScanner(pages, rounds);
+		long scannerCpu = threads.getCurrentThreadCpuTime() - start;
+		long scannerAllocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+		int crawled = pages.size() * rounds;
+		System.out.printf("Email extraction over %d pages:%n", crawled);
+		System.out.printf("  regex:   %6.1f us CPU, %8d bytes allocated per page, %d found%n",
+				regexCpu / 1000.0 / crawled, regexAllocated / crawled, regexFound);
+		System.out.printf("  scanner: %6.1f us CPU, %8d bytes allocated per page, %d found%n",
+				scannerCpu / 1000.0 / crawled, scannerAllocated / crawled, scannerFound);
+
+		assertThat(scannerFound).isGreaterThanOrEqualTo(regexFound);
+	}
+
+	private int runScanner(List<byte[]> pages, int rounds) {
+		int found = 0;
+		for (int round = 0; round < rounds; round++) {
+			for (byte[] page : pages) {
+				// Network reads arrive in buffers of a few kilobytes
+				if (scan(page, null, 8192).getEmail() != null) {
+					found++;
+				}
+			}
+		}
+		return found;
+	}
+
+	private static int runRegex(List<byte[]> pages, int rounds) {
+		int found = 0;
+		for (int round = 0; round < rounds; round++) {
+			for (byte[] page : pages) {
+				if (extractWithRegex(new String(page, StandardCharsets.UTF_8)) != null) {
+					found++;
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * The email extraction the crawler used before the streaming scanner.
+	 */
+	private static String extractWithRegex(String response) {
+		Pattern pattern = Pattern.compile("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,6}");
+		Matcher matcher = pattern.matcher(response);
+		while (matcher.find()) {
+			String potentialEmail = matcher.group();
+			if (!potentialEmail.contains("example.com") &&
+				!potentialEmail.contains("domain.com") &&
+				!potentialEmail.contains("email.com") &&
+				potentialEmail.length() < 100) {
+				return potentialEmail;
+			}
+		}
+		if (response.contains("contact") || response.contains("Contact") || response.contains("CONTACT")) {
+			Pattern contactPattern = Pattern.compile("href=[\"'](/contact[^\"']*|/about[^\"']*|/kontakt[^\"']*)[\"']",
+					Pattern.CASE_INSENSITIVE);
+			contactPattern.matcher(response).find();
+		}
+		return null;
+	}
+
+	private EmailScanner.Result scan(String page, int chunkSize) {
+		return scan(page.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, chunkSize);
+	}
+
+	private EmailScanner.Result scan(byte[] page, Charset charset, int chunkSize) {
+		EmailScanner.Session session = scanner.newSession(charset);
+		feed(session, page, chunkSize);
+		return session.finish();
+	}
+
+	private static void feed(EmailScanner.Session session, byte[] page, int chunkSize) {
+		for (int offset = 0; offset < page.length && !session.isDone(); offset += chunkSize) {
+			session.feed(ByteBuffer.wrap(page, offset, Math.min(chunkSize, page.length - offset)));
+		}
+	}
+
+	/**
+	 * A page of about 150 KB of product listings between a header and a footer.
+	 */
+	private static byte[] largePage(String header, String footer) {
+		String block = "<div class=\"product-card\"><a href=\"/urun/detay?id=42\">Ürün açıklaması</a>"
+				+ "<span class=\"price\">1.250,00 TL</span><img src=\"/img/p-42.jpg\" alt=\"product\"></div>\n";
+		String body = block.repeat(150_000 / block.length());
+		return ("<html>" + header + body + footer + "</html>").getBytes(StandardCharsets.UTF_8);
+	}
+}
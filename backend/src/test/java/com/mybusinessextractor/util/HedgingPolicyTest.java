@@ -0,0 +1,76 @@
+package com.mybusinessextractor.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgingPolicyTest {
+
+	private static final Duration DELAY = Duration.ofMillis(20);
+
+	private final HedgingPolicy policy = new HedgingPolicy();
+	private final AtomicInteger sent = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(policy, "enabled", true);
+		ReflectionTestUtils.setField(policy, "percentile", 95.0);
+		ReflectionTestUtils.setField(policy, "minDelay", DELAY);
+		ReflectionTestUtils.setField(policy, "maxDelay", DELAY);
+		ReflectionTestUtils.setField(policy, "maxRatio", 1.0);
+		ReflectionTestUtils.setField(policy, "minSamples", 1);
+		policy.recordLatency(DELAY.toNanos());
+	}
+
+	@Test
+	void fastFailureDoesNotCancelHedge() {
+		Mono<String> request = request(Mono.error(new IllegalStateException("primary")), Mono.just("hedge"));
+
+		assertThat(policy.hedge(request, () -> true).block(Duration.ofSeconds(5))).isEqualTo("hedge");
+		assertThat(sent).hasValue(2);
+		assertThat(policy.getStats()).containsEntry("hedges", 1L).containsEntry("hedgeWins", 1L);
+	}
+
+	@Test
+	void firstSuccessWins() {
+		Mono<String> request = request(Mono.just("primary"), Mono.just("hedge"));
+
+		assertThat(policy.hedge(request, () -> true).block(Duration.ofSeconds(5))).isEqualTo("primary");
+		assertThat(sent).hasValue(1);
+	}
+
+	@Test
+	void failsWithFirstErrorWhenBothFail() {
+		Mono<String> request = request(Mono.error(new IllegalStateException("primary")),
+				Mono.error(new IllegalStateException("hedge")));
+
+		assertThatThrownBy(() -> policy.hedge(request, () -> true).block(Duration.ofSeconds(5)))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("primary");
+		assertThat(sent).hasValue(2);
+	}
+
+	@Test
+	void failsWhenHedgeIsNotPermitted() {
+		Mono<String> request = request(Mono.error(new IllegalStateException("primary")), Mono.just("hedge"));
+
+		assertThatThrownBy(() -> policy.hedge(request, () -> false).block(Duration.ofSeconds(5)))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("primary");
+		assertThat(sent).hasValue(1);
+	}
+
+	/**
+	 * A request answering with the first Mono when sent first and the second when sent again.
+	 */
+	private Mono<String> request(Mono<String> first, Mono<String> second) {
+		return Mono.defer(() -> sent.incrementAndGet() == 1 ? first : second);
+	}
+}
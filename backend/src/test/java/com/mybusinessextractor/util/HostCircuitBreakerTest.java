@@ -0,0 +1,126 @@
+package com.mybusinessextractor.util;
+
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.internal.shaded.reactor.pool.PoolAcquireTimeoutException;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HostCircuitBreakerTest {
+
+	private static final Duration OPEN_DURATION = Duration.ofMillis(100);
+
+	private final HostCircuitBreaker breaker = new HostCircuitBreaker(2, OPEN_DURATION);
+	private final AtomicInteger fetches = new AtomicInteger();
+
+	@Test
+	void opensAfterConsecutiveConnectivityFailures() {
+		fail("firma.com");
+		assertThat(fetch("firma.com", Mono.just("ok")).block()).isEqualTo("ok");
+		fail("firma.com");
+		fail("firma.com");
+
+		assertThatThrownBy(() -> fetch("firma.com", Mono.just("ok")).block())
+				.isInstanceOf(HostCircuitBreaker.OpenCircuitException.class);
+		assertThat(fetch("other.com", Mono.just("ok")).block()).isEqualTo("ok");
+		assertThat(fetches).hasValue(5);
+	}
+
+	@Test
+	void httpErrorsDoNotOpenCircuit() {
+		for (int i = 0; i < 3; i++) {
+			assertThatThrownBy(() -> fetch("firma.com", Mono.error(new IllegalStateException("500"))).block())
+					.isInstanceOf(IllegalStateException.class);
+		}
+		assertThat(fetch("firma.com", Mono.just("ok")).block()).isEqualTo("ok");
+	}
+
+	@Test
+	void countsOnlyConnectDnsAndReadTimeoutFailures() {
+		assertThat(HostCircuitBreaker.isConnectivityFailure(new ConnectException("refused"))).isTrue();
+		assertThat(HostCircuitBreaker.isConnectivityFailure(new IllegalStateException(new UnknownHostException("firma.com")))).isTrue();
+		assertThat(HostCircuitBreaker.isConnectivityFailure(ReadTimeoutException.INSTANCE)).isTrue();
+
+		// Page timeout of Mono.timeout and connection pool acquire timeout
+		assertThat(HostCircuitBreaker.isConnectivityFailure(new TimeoutException("Did not observe any item"))).isFalse();
+		assertThat(HostCircuitBreaker.isConnectivityFailure(
+				new IllegalStateException(new PoolAcquireTimeoutException(Duration.ofSeconds(45))))).isFalse();
+	}
+
+	@Test
+	void slowPagesDoNotOpenCircuit() {
+		for (int i = 0; i < 3; i++) {
+			assertThatThrownBy(() -> fetch("firma.com", Mono.<String>never().timeout(Duration.ofMillis(1))).block())
+					.hasCauseInstanceOf(TimeoutException.class);
+		}
+		assertThat(fetch("firma.com", Mono.just("ok")).block()).isEqualTo("ok");
+	}
+
+	@Test
+	void letsSingleProbeThroughAndClosesOnSuccess() throws InterruptedException {
+		open("firma.com");
+		Thread.sleep(OPEN_DURATION.toMillis() * 2);
+
+		Sinks.One<String> probe = Sinks.one();
+		Disposable probing = fetch("firma.com", probe.asMono()).subscribe();
+		assertThatThrownBy(() -> fetch("firma.com", Mono.just("ok")).block())
+				.isInstanceOf(HostCircuitBreaker.OpenCircuitException.class);
+
+		probe.tryEmitValue("ok");
+		assertThat(probing.isDisposed()).isTrue();
+		assertThat(fetch("firma.com", Mono.just("ok")).block()).isEqualTo("ok");
+		// Closed again, so a single failure does not reopen it
+		fail("firma.com");
+		assertThat(fetch("firma.com", Mono.just("ok")).block()).isEqualTo("ok");
+	}
+
+	@Test
+	void reopensWhenProbeFails() throws InterruptedException {
+		open("firma.com");
+		Thread.sleep(OPEN_DURATION.toMillis() * 2);
+
+		fail("firma.com");
+
+		assertThatThrownBy(() -> fetch("firma.com", Mono.just("ok")).block())
+				.isInstanceOf(HostCircuitBreaker.OpenCircuitException.class);
+		assertThat(breaker.getStats()).containsEntry("opened", 2L).containsEntry("openCircuits", 1L);
+	}
+
+	@Test
+	void cancelledProbeLetsNextFetchProbe() throws InterruptedException {
+		open("firma.com");
+		Thread.sleep(OPEN_DURATION.toMillis() * 2);
+
+		fetch("firma.com", Mono.never()).subscribe().dispose();
+
+		assertThat(fetch("firma.com", Mono.just("ok")).block()).isEqualTo("ok");
+	}
+
+	private void open(String host) {
+		fail(host);
+		fail(host);
+		assertThat(breaker.getStats()).containsEntry("openCircuits", 1L);
+	}
+
+	private void fail(String host) {
+		assertThatThrownBy(() -> fetch(host, Mono.error(new ConnectException("refused"))).block())
+				.hasCauseInstanceOf(ConnectException.class);
+	}
+
+	private Mono<String> fetch(String host, Mono<String> response) {
+		return breaker.protect(host, Mono.defer(() -> {
+			fetches.incrementAndGet();
+			return response;
+		}));
+	}
+}
@@ -0,0 +1,91 @@
+package com.mybusinessextractor.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HostCrawlSchedulerTest {
+
+	private final List<String> started = new CopyOnWriteArrayList<>();
+
+	@Test
+	void limitsConcurrentFetchesPerHost() {
+		HostCrawlScheduler scheduler = new HostCrawlScheduler(10, 2, Duration.ZERO);
+		Sinks.One<String> first = Sinks.one();
+		Sinks.One<String> second = Sinks.one();
+
+		scheduler.schedule("a", fetch("a1", first.asMono())).subscribe();
+		scheduler.schedule("a", fetch("a2", second.asMono())).subscribe();
+		scheduler.schedule("a", fetch("a3", Mono.just("ok"))).subscribe();
+		scheduler.schedule("b", fetch("b1", Mono.never())).subscribe();
+
+		assertThat(started).containsExactly("a1", "a2", "b1");
+		assertThat(scheduler.getStats()).containsEntry("active", 3).containsEntry("queued", 1);
+
+		first.tryEmitValue("ok");
+
+		assertThat(started).containsExactly("a1", "a2", "b1", "a3");
+		assertThat(scheduler.getStats()).containsEntry("active", 2).containsEntry("queued", 0);
+	}
+
+	@Test
+	void startsNextFetchOfHostAfterMinimumInterval() {
+		Duration minInterval = Duration.ofMillis(100);
+		HostCrawlScheduler scheduler = new HostCrawlScheduler(10, 5, minInterval);
+
+		long scheduled = System.nanoTime();
+		scheduler.schedule("a", fetch("a1", Mono.just("ok"))).block();
+		// Nothing else completes, so only the scheduled wake-up can start this fetch
+		long secondStart = scheduler.schedule("a", Mono.fromCallable(System::nanoTime)).block(Duration.ofSeconds(5));
+
+		assertThat(started).containsExactly("a1");
+		assertThat(secondStart - scheduled).isGreaterThanOrEqualTo(minInterval.toNanos());
+	}
+
+	@Test
+	void handsOutSlotsRoundRobinAcrossHosts() {
+		HostCrawlScheduler scheduler = new HostCrawlScheduler(1, 1, Duration.ZERO);
+		Sinks.One<String> blocker = Sinks.one();
+		scheduler.schedule("x", fetch("x", blocker.asMono())).subscribe();
+
+		scheduler.schedule("a", fetch("a1", Mono.just("ok"))).subscribe();
+		scheduler.schedule("a", fetch("a2", Mono.just("ok"))).subscribe();
+		scheduler.schedule("a", fetch("a3", Mono.just("ok"))).subscribe();
+		scheduler.schedule("b", fetch("b1", Mono.just("ok"))).subscribe();
+		scheduler.schedule("b", fetch("b2", Mono.just("ok"))).subscribe();
+		blocker.tryEmitValue("ok");
+
+		assertThat(started).containsExactly("x", "a1", "b1", "a2", "b2", "a3");
+	}
+
+	@Test
+	void cancelledQueuedFetchIsNeverStarted() {
+		HostCrawlScheduler scheduler = new HostCrawlScheduler(1, 1, Duration.ZERO);
+		Sinks.One<String> blocker = Sinks.one();
+		scheduler.schedule("x", fetch("x", blocker.asMono())).subscribe();
+		Disposable queued = scheduler.schedule("a", fetch("a1", Mono.just("ok"))).subscribe();
+		scheduler.schedule("b", fetch("b1", Mono.just("ok"))).subscribe();
+		assertThat(scheduler.getStats()).containsEntry("queued", 2);
+
+		queued.dispose();
+		assertThat(scheduler.getStats()).containsEntry("queued", 1);
+		blocker.tryEmitValue("ok");
+
+		assertThat(started).containsExactly("x", "b1");
+		assertThat(scheduler.getStats()).containsEntry("active", 0).containsEntry("queued", 0);
+	}
+
+	private Mono<String> fetch(String name, Mono<String> response) {
+		return Mono.defer(() -> {
+			started.add(name);
+			return response;
+		});
+	}
+}
@@ -0,0 +1,101 @@
+package com.mybusinessextractor.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybusinessextractor.dto.JobPriority;
+import com.mybusinessextractor.dto.TaskStatus;
+import com.mybusinessextractor.model.Business;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobJournalTest {
+
+	@TempDir
+	Path directory;
+
+	private JobJournal journal;
+
+	@BeforeEach
+	void setUp() {
+		journal = newJournal();
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		journal.close();
+	}
+
+	@Test
+	void readsBackWhatWasWritten() throws InterruptedException {
+		journal.jobStarted("job", JobPriority.BULK, true, 3, List.of(task("1"), task("2")));
+		journal.businessFound("job", "1", Business.builder().id("a").businessName("A").build(), true);
+		journal.businessFound("job", "2", Business.builder().id("b").build(), false);
+		journal.emailFound("job", "1", "a", "info@a.com");
+		journal.taskFinished("job", "1", "COMPLETED", null);
+		journal.close();
+
+		Map<String, List<JobJournal.Record>> jobs = newJournal().readUnfinishedJobs();
+
+		assertThat(jobs).containsOnlyKeys("job");
+		List<JobJournal.Record> records = jobs.get("job");
+		assertThat(records).extracting(JobJournal.Record::getType).containsExactly(
+				JobJournal.RecordType.JOB_STARTED, JobJournal.RecordType.BUSINESS, JobJournal.RecordType.BUSINESS,
+				JobJournal.RecordType.EMAIL, JobJournal.RecordType.TASK_FINISHED);
+		assertThat(records.get(0).getPriority()).isEqualTo(JobPriority.BULK);
+		assertThat(records.get(0).getMaxConcurrentTasks()).isEqualTo(3);
+		assertThat(records.get(0).getTasks()).extracting(TaskStatus::getId).containsExactly("1", "2");
+		assertThat(records.get(1).getBusiness().getBusinessName()).isEqualTo("A");
+		assertThat(records.get(1).getPersisted()).isTrue();
+		assertThat(records.get(2).getPersisted()).isFalse();
+		assertThat(records.get(3).getTaskId()).isEqualTo("1");
+		assertThat(records.get(3).getEmail()).isEqualTo("info@a.com");
+		assertThat(records.get(4).getStatus()).isEqualTo("COMPLETED");
+	}
+
+	@Test
+	void skipsLineCutShortAndKeepsAppending() throws IOException, InterruptedException {
+		journal.jobStarted("job", JobPriority.INTERACTIVE, false, 0, List.of(task("1")));
+		journal.close();
+		Files.writeString(directory.resolve("job.jsonl"), "{\"type\":\"BUSI", StandardCharsets.UTF_8,
+				StandardOpenOption.APPEND);
+
+		journal = newJournal();
+		journal.taskFinished("job", "1", "FAILED", "boom");
+		journal.close();
+
+		List<JobJournal.Record> records = newJournal().readUnfinishedJobs().get("job");
+		assertThat(records).extracting(JobJournal.Record::getType)
+				.containsExactly(JobJournal.RecordType.JOB_STARTED, JobJournal.RecordType.TASK_FINISHED);
+	}
+
+	@Test
+	void deletesJournalOfFinishedJob() throws InterruptedException {
+		journal.jobStarted("job", JobPriority.INTERACTIVE, false, 0, List.of(task("1")));
+		journal.jobFinished("job");
+		journal.close();
+
+		assertThat(newJournal().readUnfinishedJobs()).isEmpty();
+	}
+
+	private JobJournal newJournal() {
+		JobJournal journal = new JobJournal(new ObjectMapper().findAndRegisterModules());
+		ReflectionTestUtils.setField(journal, "directory", directory.toString());
+		return journal;
+	}
+
+	private static TaskStatus task(String id) {
+		return TaskStatus.builder().id(id).category("cafe").location("Izmir").status("PENDING").build();
+	}
+}
@@ -0,0 +1,48 @@
+package com.mybusinessextractor.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.ConnectException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LinkShortenerCrawlRuleTest {
+
+	private final HostCrawlScheduler scheduler = new HostCrawlScheduler(10, 1, Duration.ZERO);
+	private final HostCircuitBreaker breaker = new HostCircuitBreaker(1, Duration.ofMinutes(1));
+	private final LinkShortenerCrawlRule rule = new LinkShortenerCrawlRule(HttpClient.create(), scheduler, breaker);
+
+	@Test
+	void classifiesOnlyShortenerDomains() {
+		assertThat(rule.classify("https://bit.ly/abc", "bit.ly").getAction()).isEqualTo(CrawlDecision.Action.SPECIAL);
+		assertThat(rule.classify("https://firma.com", "firma.com")).isNull();
+	}
+
+	@Test
+	void waitsForTurnOfShortenerHost() {
+		scheduler.schedule("bit.ly", Mono.never()).subscribe();
+
+		Disposable resolving = resolve("https://bit.ly/abc").subscribe();
+
+		assertThat(scheduler.getStats()).containsEntry("active", 1).containsEntry("queued", 1);
+		resolving.dispose();
+		assertThat(scheduler.getStats()).containsEntry("queued", 0);
+	}
+
+	@Test
+	void skipsShortenerWithOpenCircuit() {
+		breaker.protect("bit.ly", Mono.error(new ConnectException("refused"))).onErrorComplete().block();
+
+		assertThat(resolve("https://bit.ly/abc").block(Duration.ofSeconds(1))).isNull();
+		assertThat(breaker.getStats()).containsEntry("rejected", 1L);
+		assertThat(scheduler.getStats()).containsEntry("active", 0);
+	}
+
+	private Mono<String> resolve(String url) {
+		return rule.classify(url, DomainNames.host(url)).getHandler().apply(url);
+	}
+}
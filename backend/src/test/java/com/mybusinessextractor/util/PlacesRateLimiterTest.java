@@ -0,0 +1,106 @@
+package com.mybusinessextractor.util;
+
+import com.mybusinessextractor.dto.JobPriority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlacesRateLimiterTest {
+
+	private final PlacesRateLimiter limiter = new PlacesRateLimiter();
+	private final List<String> granted = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(limiter, "maxRate", 5.0);
+		ReflectionTestUtils.setField(limiter, "minRate", 1.0);
+		ReflectionTestUtils.setField(limiter, "burst", 1.0);
+		ReflectionTestUtils.setField(limiter, "recoveryStep", 1.0);
+		ReflectionTestUtils.setField(limiter, "decreaseCooldown", Duration.ofSeconds(1));
+		ReflectionTestUtils.invokeMethod(limiter, "init");
+		// Take the only token and wait for the next one, so the callers queued next all wait for
+		// the refill and the wake-up timer is already initialized
+		acquire("warm-up", JobPriority.NORMAL);
+		acquire("warm-up", JobPriority.NORMAL);
+		awaitGranted(2);
+		granted.clear();
+	}
+
+	@Test
+	void grantsWaitersByPriorityWeight() {
+		acquire("b1", JobPriority.BULK);
+		acquire("b2", JobPriority.BULK);
+		List<String> interactive = new ArrayList<>();
+		for (int i = 1; i <= 8; i++) {
+			interactive.add("i" + i);
+			acquire("i" + i, JobPriority.INTERACTIVE);
+		}
+
+		awaitGranted(10);
+		// Both priorities get a turn first; after that interactive is served 16 times per bulk grant
+		assertThat(granted.subList(0, 2)).containsExactlyInAnyOrder("i1", "b1");
+		assertThat(granted.stream().filter(name -> name.startsWith("i"))).containsExactlyElementsOf(interactive);
+		assertThat(granted.get(9)).isEqualTo("b2");
+	}
+
+	@Test
+	void grantsTokenRightAwayWhenNobodyWaits() throws InterruptedException {
+		Thread.sleep(300);
+
+		assertThat(limiter.tryAcquire()).isTrue();
+		assertThat(limiter.tryAcquire()).isFalse();
+	}
+
+	@Test
+	void tryAcquireDoesNotOvertakeWaiters() {
+		acquire("b1", JobPriority.BULK);
+
+		assertThat(limiter.tryAcquire()).isFalse();
+		awaitGranted(1);
+	}
+
+	@Test
+	void cancelledWaiterLeavesQueue() {
+		Disposable cancelled = acquire("b1", JobPriority.BULK);
+		acquire("b2", JobPriority.BULK);
+		assertThat(waiting()).containsEntry("BULK", 2);
+
+		cancelled.dispose();
+		assertThat(waiting()).containsEntry("BULK", 1);
+
+		awaitGranted(1);
+		assertThat(granted).containsExactly("b2");
+	}
+
+	private Disposable acquire(String name, JobPriority priority) {
+		return limiter.acquire()
+				.then(Mono.fromRunnable(() -> granted.add(name)))
+				.contextWrite(context -> context.put(JobPriority.CONTEXT_KEY, priority))
+				.subscribe();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Integer> waiting() {
+		return (Map<String, Integer>) limiter.getStats().get("waiting");
+	}
+
+	private void awaitGranted(int count) {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (granted.size() < count) {
+			assertThat(System.nanoTime()).as("granted in time").isLessThan(deadline);
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+		}
+	}
+}
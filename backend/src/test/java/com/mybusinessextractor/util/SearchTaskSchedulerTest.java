@@ -0,0 +1,101 @@
+package com.mybusinessextractor.util;
+
+import com.mybusinessextractor.dto.JobPriority;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchTaskSchedulerTest {
+
+	private final List<String> started = new CopyOnWriteArrayList<>();
+
+	@Test
+	void limitsConcurrentTasksPerJob() {
+		SearchTaskScheduler scheduler = new SearchTaskScheduler(10, 2);
+		Sinks.One<String> first = Sinks.one();
+
+		schedule(scheduler, "a", 0, JobPriority.NORMAL, task("a1", first.asMono()));
+		schedule(scheduler, "a", 0, JobPriority.NORMAL, task("a2", Mono.never()));
+		schedule(scheduler, "a", 0, JobPriority.NORMAL, task("a3", Mono.never()));
+		schedule(scheduler, "b", 3, JobPriority.NORMAL, task("b1", Mono.never()));
+
+		assertThat(started).containsExactly("a1", "a2", "b1");
+		assertThat(scheduler.getQueued("a")).isEqualTo(1);
+
+		first.tryEmitValue("done");
+
+		assertThat(started).containsExactly("a1", "a2", "b1", "a3");
+		assertThat(scheduler.getQueued()).isZero();
+	}
+
+	@Test
+	void rejectsTaskWithDifferentLimitThanItsJob() {
+		SearchTaskScheduler scheduler = new SearchTaskScheduler(10, 2);
+		schedule(scheduler, "a", 3, JobPriority.NORMAL, task("a1", Mono.never()));
+
+		assertThatThrownBy(() -> scheduler.schedule("a", 4, task("a2", Mono.just("done"))).block())
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(started).containsExactly("a1");
+	}
+
+	@Test
+	void sharesSlotsByPriorityWeight() {
+		SearchTaskScheduler scheduler = new SearchTaskScheduler(1, 1);
+		Sinks.One<String> blocker = Sinks.one();
+		schedule(scheduler, "x", 0, JobPriority.NORMAL, task("x", blocker.asMono()));
+
+		for (int i = 1; i <= 3; i++) {
+			schedule(scheduler, "bulk", 0, JobPriority.BULK, task("b" + i, Mono.just("done")));
+		}
+		for (int i = 1; i <= 3; i++) {
+			schedule(scheduler, "interactive", 0, JobPriority.INTERACTIVE, task("i" + i, Mono.just("done")));
+		}
+		blocker.tryEmitValue("done");
+
+		// Both jobs start level and the tie goes to the job queued first; after that the
+		// interactive job is served 16 times for every bulk task
+		assertThat(started).containsExactly("x", "b1", "i1", "i2", "i3", "b2", "b3");
+	}
+
+	@Test
+	void dropsWaitingTasksAtShutdown() throws InterruptedException {
+		SearchTaskScheduler scheduler = new SearchTaskScheduler(1, 1);
+		Sinks.One<String> running = Sinks.one();
+		schedule(scheduler, "a", 0, JobPriority.NORMAL, task("a1", running.asMono()));
+		AtomicReference<Throwable> dropped = new AtomicReference<>();
+		scheduler.schedule("a", 0, task("a2", Mono.just("done"))).subscribe(result -> { }, dropped::set);
+
+		assertThat(scheduler.shutdown(Duration.ofMillis(50))).isFalse();
+		assertThat(dropped.get()).isInstanceOf(IllegalStateException.class);
+		assertThat(scheduler.getQueued()).isZero();
+		assertThatThrownBy(() -> scheduler.schedule("b", 0, task("b1", Mono.just("done"))).block())
+				.isInstanceOf(IllegalStateException.class);
+
+		running.tryEmitValue("done");
+
+		assertThat(scheduler.shutdown(Duration.ofSeconds(1))).isTrue();
+		assertThat(started).containsExactly("a1");
+	}
+
+	private static void schedule(SearchTaskScheduler scheduler, String jobId, int jobConcurrency,
+								 JobPriority priority, Mono<String> task) {
+		scheduler.schedule(jobId, jobConcurrency, task)
+				.contextWrite(context -> context.put(JobPriority.CONTEXT_KEY, priority))
+				.subscribe();
+	}
+
+	private Mono<String> task(String name, Mono<String> result) {
+		return Mono.defer(() -> {
+			started.add(name);
+			return result;
+		});
+	}
+}
@@ -63,7 +63,10 @@ const TaskQueuePanel: React.FC = () => {
                 </div>
                 
                 <div className="flex justify-between text-xs text-gray-400">
-                  <span>Items: {task.processedItems}</span>
+                  <span>
+                    Items: {task.processedItems}
+                    {task.crawlTotalItems ? ` · Emails: ${task.crawledItems ?? 0} / ${task.crawlTotalItems}` : ''}
+                  </span>
                   {task.status === 'FAILED' && task.message ? (
                     <span className="text-red-400">{task.message}</span>
                   ) : (
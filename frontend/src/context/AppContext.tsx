@@ -1,8 +1,8 @@
 import React, { createContext, useContext, useState, useEffect, ReactNode, useCallback } from 'react';
 import { Business } from '../types';
 import { getStoredBusinesses, getBusinessesByCategory, getBusinessesByCity, getBusinessesByEmailStatus, getBusinessesByCountry } from '../services/api';
-import { getTasks, getResults, exportResults as apiExportResults, searchBusinesses as apiSearchBusinesses } from '../services/api';
-import { PaginatedResponse } from '../services/api';
+import { getTasks, getTaskUpdates, openJobEvents, getResults, getResultsAfter, exportResults as apiExportResults, searchBusinesses as apiSearchBusinesses } from '../services/api';
+import { PaginatedResponse, ResultPage, TaskProgressUpdate } from '../services/api';
 
 // Interface definitions for context types
 interface AppContextType {
@@ -69,9 +69,31 @@ interface TaskStatus {
   status: string;
   processedItems: number;
   totalItems: number;
+  detailedItems?: number;
+  failedItems?: number;
+  persistedItems?: number;
+  crawledItems?: number;
+  crawlTotalItems?: number;
   message?: string;
+  version?: number;
 }
 
+// Replaces the items with the same ID and appends new ones
+const upsertById = <T extends { id: string }>(items: T[], updates: T[]): T[] => {
+  const positions = new Map(items.map((item, index) => [item.id, index]));
+  const merged = [...items];
+  updates.forEach(update => {
+    const position = positions.get(update.id);
+    if (position === undefined) {
+      positions.set(update.id, merged.length);
+      merged.push(update);
+    } else {
+      merged[position] = update;
+    }
+  });
+  return merged;
+};
+
 export const AppProvider: React.FC<{children: ReactNode}> = ({ children }) => {
   const [categories, setCategories] = useState<string[]>([]);
   const [locations, setLocations] = useState<string[]>([]);
@@ -95,26 +117,91 @@ export const AppProvider: React.FC<{children: ReactNode}> = ({ children }) => {
   const [hasMore, setHasMore] = useState<boolean>(true);
   const [error, setError] = useState<string | null>(null);
   const [saveToDatabase, setSaveToDatabase] = useState<boolean>(true);
+  // Search job started by this client; other clients' searches run in their own jobs
+  const [jobId, setJobId] = useState<string | null>(null);
 
-  // Poll for tasks status when searching
+  // Follow the live events of the job while searching
+  useEffect(() => {
+    if (!isPolling || !jobId || typeof EventSource === 'undefined') {
+      return;
+    }
+    
+    // Events carry only changed tasks and new or updated businesses
+    setTasks([]);
+    setBusinesses([]);
+    const source = openJobEvents(jobId);
+    source.addEventListener('tasks', (event) => {
+      const update: TaskProgressUpdate = JSON.parse((event as MessageEvent).data);
+      setTasks(previous => upsertById(previous, update.tasks));
+    });
+    source.addEventListener('results', (event) => {
+      const batch: Business[] = JSON.parse((event as MessageEvent).data);
+      setBusinesses(previous => upsertById(previous, batch));
+    });
+    source.addEventListener('finished', () => {
+      source.close();
+      setIsPolling(false);
+    });
+    source.onerror = () => {
+      // The browser retries on its own unless the job is gone
+      if (source.readyState === EventSource.CLOSED) {
+        setIsPolling(false);
+      }
+    };
+    
+    return () => source.close();
+  }, [isPolling, jobId]);
+
+  // Poll for tasks status when searching without live events
   useEffect(() => {
     let interval: NodeJS.Timeout;
+    if (jobId && typeof EventSource !== 'undefined') {
+      return;
+    }
+    // Progress version and result cursor of the job seen last; later polls only receive what changed since
+    let since = 0;
+    let after = 0;
     
     if (isPolling) {
       interval = setInterval(async () => {
         try {
-          const taskResults = await getTasks();
-          setTasks(taskResults);
-          
-          const resultsData = await getResults();
-          setBusinesses(resultsData.businesses);
+          let allDone: boolean;
+          if (jobId) {
+            const update = await getTaskUpdates(jobId, since);
+            // The first update and the one of a finished job contain every task
+            const fullUpdate = since === 0 || update.finished;
+            const changed = new Map(update.tasks.map(task => [task.id, task]));
+            setTasks(previous => fullUpdate ? update.tasks : previous.map(task => changed.get(task.id) ?? task));
+            since = update.version;
+            allDone = update.finished;
+          } else {
+            const taskResults = await getTasks(jobId);
+            setTasks(taskResults);
+            
+            // Check if all tasks are completed or failed
+            // Emails are backfilled after a task completes, so wait for its crawls as well
+            allDone = taskResults.length > 0 && taskResults.every((task: TaskStatus) => 
+              (task.status === 'COMPLETED' || task.status === 'FAILED') &&
+              (task.crawledItems ?? 0) >= (task.crawlTotalItems ?? 0)
+            );
+          }
           
-          // Check if all tasks are completed or failed
-          const allDone = taskResults.every((task: TaskStatus) => 
-            task.status === 'COMPLETED' || task.status === 'FAILED'
-          );
+          if (jobId) {
+            // Drain the pages, so the last poll of a finished job leaves nothing behind
+            let page: ResultPage;
+            do {
+              page = await getResultsAfter(jobId, after);
+              const batch = page.businesses;
+              const firstPage = after === 0;
+              setBusinesses(previous => firstPage ? batch : upsertById(previous, batch));
+              after = page.nextCursor;
+            } while (page.hasMore);
+          } else {
+            const resultsData = await getResults(jobId);
+            setBusinesses(resultsData.businesses);
+          }
           
-          if (allDone && taskResults.length > 0) {
+          if (allDone) {
             setIsPolling(false);
           }
         } catch (error) {
@@ -126,7 +213,7 @@ export const AppProvider: React.FC<{children: ReactNode}> = ({ children }) => {
     return () => {
       if (interval) clearInterval(interval);
     };
-  }, [isPolling]);
+  }, [isPolling, jobId]);
 
   const addCategory = (category: string) => {
     if (!categories.includes(category)) {
@@ -184,14 +271,15 @@ export const AppProvider: React.FC<{children: ReactNode}> = ({ children }) => {
         saveToDatabase: saveToDatabase
       };
       
-      await apiSearchBusinesses(request);
+      const newJobId = await apiSearchBusinesses(request);
+      setJobId(newJobId);
       setIsPolling(true);
       
       // Initial fetch of tasks and results
-      const taskResults = await getTasks();
+      const taskResults = await getTasks(newJobId);
       setTasks(taskResults);
       
-      const resultsData = await getResults();
+      const resultsData = await getResults(newJobId);
       setBusinesses(resultsData.businesses);
     } catch (error) {
       console.error('Error starting search:', error);
@@ -208,7 +296,7 @@ export const AppProvider: React.FC<{children: ReactNode}> = ({ children }) => {
 
     try {
       setIsLoading(true);
-      const blob = await apiExportResults(format);
+      const blob = await apiExportResults(format, jobId);
       
       // Create download link
       const url = window.URL.createObjectURL(blob);
@@ -23,6 +23,9 @@ export interface SearchRequest {
   categories: string[];
   locations: string[];
   saveToDatabase?: boolean;
+  maxConcurrentTasks?: number;
+  // Defaults to INTERACTIVE for small searches and BULK for large ones
+  priority?: 'INTERACTIVE' | 'NORMAL' | 'BULK';
 }
 
 export const searchBusinesses = async (request: SearchRequest): Promise<string> => {
@@ -30,22 +33,63 @@ export const searchBusinesses = async (request: SearchRequest): Promise<string>
   return response.data;
 };
 
-export const getTasks = async (): Promise<TaskStatus[]> => {
-  const response = await api.get('/tasks');
+// Endpoints of a search job, or of the latest job if no job ID is given
+const jobPath = (jobId: string | null | undefined, path: string): string =>
+  jobId ? `/jobs/${encodeURIComponent(jobId)}${path}` : path;
+
+export const getTasks = async (jobId?: string | null): Promise<TaskStatus[]> => {
+  const response = await api.get(jobPath(jobId, '/tasks'));
   return response.data;
 };
 
-export const getResults = async (): Promise<{
+export interface TaskProgressUpdate {
+  jobId: string;
+  // Pass as `since` on the next call to receive only later changes
+  version: number;
+  finished: boolean;
+  tasks: TaskStatus[];
+}
+
+export const getTaskUpdates = async (jobId: string, since: number): Promise<TaskProgressUpdate> => {
+  const response = await api.get(jobPath(jobId, '/tasks/updates'), {
+    params: { since }
+  });
+  return response.data;
+};
+
+// Live events of a search job; the browser reconnects on its own and resumes after the last event it received
+export const openJobEvents = (jobId: string): EventSource =>
+  new EventSource(`${API_URL}${jobPath(jobId, '/events')}`);
+
+export const getResults = async (jobId?: string | null): Promise<{
   businesses: Business[];
   total: number;
   status: string;
 }> => {
-  const response = await api.get('/results');
+  const response = await api.get(jobPath(jobId, '/results'));
+  return response.data;
+};
+
+export interface ResultPage {
+  jobId: string;
+  // A business appears again after each update, e.g. a backfilled email
+  businesses: Business[];
+  // Pass as `after` on the next call to receive only later entries
+  nextCursor: number;
+  hasMore: boolean;
+  total: number;
+  status: string;
+}
+
+export const getResultsAfter = async (jobId: string, after: number, limit: number = 500): Promise<ResultPage> => {
+  const response = await api.get(jobPath(jobId, '/results'), {
+    params: { after, limit }
+  });
   return response.data;
 };
 
-export const exportResults = async (format: string): Promise<Blob> => {
-  const response = await api.post('/export', { format }, {
+export const exportResults = async (format: string, jobId?: string | null): Promise<Blob> => {
+  const response = await api.post(jobPath(jobId, '/export'), { format }, {
     responseType: 'blob',
   });
   return response.data;
@@ -30,7 +30,13 @@ export interface TaskStatus {
   status: 'PENDING' | 'PROCESSING' | 'COMPLETED' | 'FAILED';
   processedItems: number;
   totalItems: number;
+  detailedItems?: number;
+  failedItems?: number;
+  persistedItems?: number;
+  crawledItems?: number;
+  crawlTotalItems?: number;
   message?: string;
+  version?: number;
 }
 
 export interface SearchResponse {